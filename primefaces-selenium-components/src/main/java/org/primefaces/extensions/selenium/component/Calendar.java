@@ -30,6 +30,9 @@ import java.time.format.DateTimeFormatter;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebElement;
 import org.primefaces.extensions.selenium.PrimeSelenium;
+import org.primefaces.extensions.selenium.Quirk;
+import org.primefaces.extensions.selenium.ScriptBatch;
+import org.primefaces.extensions.selenium.ScriptBatch.Result;
 import org.primefaces.extensions.selenium.component.base.AbstractInputComponent;
 import org.primefaces.extensions.selenium.component.base.ComponentUtils;
 import org.primefaces.extensions.selenium.findby.FindByParentPartialId;
@@ -75,28 +78,34 @@ public abstract class Calendar extends AbstractInputComponent {
     }
 
     public LocalDateTime getValue() {
-        Object date = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate()");
+        String date = "var date = " + getWidgetByIdScript() + ".getDate();";
 
-        if (date == null) {
+        ScriptBatch batch = PrimeSelenium.batch();
+        Result<Long> timeZoneOffset = batch.read(date + "return date ? date.getTimezoneOffset() : null;");
+        Result<String> utcTimeString = batch.read(date + "return date ? date.toUTCString() : null;");
+        batch.execute();
+
+        if (utcTimeString.get() == null) {
             return null;
         }
 
-        long timeZoneOffset = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate().getTimezoneOffset()");
-        String utcTimeString = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate().toUTCString();");
-
         // Parse time string and subtract the timezone offset
-        return LocalDateTime.parse(utcTimeString, DateTimeFormatter.RFC_1123_DATE_TIME).minusMinutes(timeZoneOffset);
+        return LocalDateTime.parse(utcTimeString.get(), DateTimeFormatter.RFC_1123_DATE_TIME).minusMinutes(timeZoneOffset.get());
     }
 
     public LocalDate getValueAsLocalDate() {
-        Object date = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate()");
-        if (date == null) {
+        String date = "var date = " + getWidgetByIdScript() + ".getDate();";
+
+        ScriptBatch batch = PrimeSelenium.batch();
+        Result<Long> dayOfMonth = batch.read(date + "return date ? date.getDate() : null;");
+        Result<Long> month = batch.read(date + "return date ? date.getMonth() : null;");
+        Result<Long> year = batch.read(date + "return date ? date.getFullYear() : null;");
+        batch.execute();
+
+        if (dayOfMonth.get() == null) {
             return null;
         }
-        Long dayOfMonth = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate().getDate();");
-        Long month = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate().getMonth();");
-        Long year = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate().getFullYear();");
-        return LocalDate.of(year.intValue(), month.intValue() + 1, dayOfMonth.intValue());
+        return LocalDate.of(year.get().intValue(), month.get().intValue() + 1, dayOfMonth.get().intValue());
     }
 
     public void setValue(LocalDate localDate) {
@@ -116,7 +125,7 @@ public abstract class Calendar extends AbstractInputComponent {
     }
 
     public void setValue(long millis) {
-        if (PrimeSelenium.isSafari()) {
+        if (PrimeSelenium.getBrowserProfile().has(Quirk.SAFARI_SET_DATE_VIA_SCRIPT)) {
             // Safari not overwriting with command+a so use JS code
             setDate(millis);
         }
@@ -171,16 +180,16 @@ public abstract class Calendar extends AbstractInputComponent {
      * @return the JS date value or null
      */
     public String getWidgetDate() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getDate();");
     }
 
     public String millisAsFormattedDate(long millis) {
-        return PrimeSelenium.executeScript(
+        return PrimeSelenium.executeReadOnlyScript(
                     "return $.datepicker.formatDate(" + getWidgetByIdScript() + ".cfg.dateFormat, new Date(" + millis + "));");
     }
 
     public long getTimezoneOffset() {
-        return (Long) PrimeSelenium.executeScript("return new Date().getTimezoneOffset();");
+        return (Long) PrimeSelenium.executeReadOnlyScript("return new Date().getTimezoneOffset();");
     }
 
 }
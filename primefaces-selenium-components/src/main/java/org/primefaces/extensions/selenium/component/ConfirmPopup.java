@@ -66,7 +66,7 @@ public abstract class ConfirmPopup extends AbstractComponent {
      * @return true if visible false if not
      */
     public boolean isVisible() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".isVisible();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".isVisible();");
     }
 
     /**
@@ -157,7 +157,7 @@ public abstract class DatePicker extends AbstractInputComponent {
             return null;
         }
 
-        String utcTimeString = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate().toUTCString();");
+        String utcTimeString = PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getDate().toUTCString();");
 
         // Parse time string and move into server-timezone
         LocalDateTime dateTime = LocalDateTime.parse(utcTimeString, DateTimeFormatter.RFC_1123_DATE_TIME);
@@ -170,9 +170,9 @@ public abstract class DatePicker extends AbstractInputComponent {
         if (getWidgetDate() == null) {
             return null;
         }
-        Long dayOfMonth = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate().getDate();");
-        Long month = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate().getMonth();");
-        Long year = PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate().getFullYear();");
+        Long dayOfMonth = PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getDate().getDate();");
+        Long month = PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getDate().getMonth();");
+        Long year = PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getDate().getFullYear();");
         return LocalDate.of(year.intValue(), month.intValue() + 1, dayOfMonth.intValue());
     }
 
@@ -190,7 +190,7 @@ public abstract class DatePicker extends AbstractInputComponent {
     }
 
     public String millisAsFormattedDate(long millis) {
-        return PrimeSelenium.executeScript(
+        return PrimeSelenium.executeReadOnlyScript(
                     "return " + getWidgetByIdScript() + ".jq.data().primeDatePicker.formatDateTime(new Date(" + millis + "));");
     }
 
@@ -219,7 +219,7 @@ public abstract class DatePicker extends AbstractInputComponent {
      * @return the JS date value or null
      */
     public String getWidgetDate() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getDate();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getDate();");
     }
 
     /**
@@ -266,7 +266,7 @@ public abstract class DatePicker extends AbstractInputComponent {
      * @return the browser time zone offset in milliseconds
      */
     public long getTimezoneOffset() {
-        return (Long) PrimeSelenium.executeScript("return new Date().getTimezoneOffset();");
+        return (Long) PrimeSelenium.executeReadOnlyScript("return new Date().getTimezoneOffset();");
     }
 
 }
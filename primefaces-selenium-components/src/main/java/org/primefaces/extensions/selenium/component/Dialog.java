@@ -52,7 +52,7 @@ public abstract class Dialog extends AbstractComponent {
      * @return true if visible false if not
      */
     public boolean isVisible() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".isVisible();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".isVisible();");
     }
 
     /**
@@ -57,7 +57,7 @@ public abstract class InputMask extends InputText {
      * @return the current value
      */
     public String getWidgetValue() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getValue();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getValue();");
     }
 
     /**
@@ -67,6 +67,6 @@ public abstract class InputMask extends InputText {
      * @since 9.0
      */
     public String getWidgetValueUnmasked() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getValueUnmasked();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getValueUnmasked();");
     }
 }
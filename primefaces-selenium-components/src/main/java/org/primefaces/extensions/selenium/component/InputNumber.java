@@ -53,12 +53,15 @@ public abstract class InputNumber extends InputText {
             value = "\"\"";
         }
 
-        PrimeSelenium.executeScript(getWidgetByIdScript() + ".setValue(" + value.toString() + ")");
-        PrimeSelenium.executeScript(isOnchangeAjaxified(), getWidgetByIdScript() + ".input.trigger('change')");
+        PrimeSelenium.batch()
+                    .add(getWidgetByIdScript() + ".setValue(" + value.toString() + ")")
+                    .add(getWidgetByIdScript() + ".input.trigger('change')")
+                    .guardAjax(isOnchangeAjaxified())
+                    .execute();
     }
 
     public Double getValueToRender() {
-        return Double.valueOf(PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".valueToRender;"));
+        return Double.valueOf(PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".valueToRender;"));
     }
 
     /**
@@ -67,6 +70,6 @@ public abstract class InputNumber extends InputText {
      * @return the widget's value
      */
     public String getWidgetValue() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getValue();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getValue();");
     }
 }
@@ -88,7 +88,7 @@ public abstract class Rating extends AbstractInputComponent {
      * @return The current rating value.
      */
     public Number getValue() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getValue();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getValue();");
     }
 
     /**
@@ -113,7 +113,7 @@ public abstract class Rating extends AbstractInputComponent {
      * @return true if disabled
      */
     public boolean isDisabled() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".isDisabled();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".isDisabled();");
     }
 
     /**
@@ -122,7 +122,7 @@ public abstract class Rating extends AbstractInputComponent {
      * @return true if readonly
      */
     public boolean isReadOnly() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".isReadOnly();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".isReadOnly();");
     }
 
     @Override
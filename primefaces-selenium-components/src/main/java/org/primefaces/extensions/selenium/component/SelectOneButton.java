@@ -153,7 +153,7 @@ public abstract class SelectOneButton extends AbstractInputComponent {
     }
 
     public boolean isUnselectable() {
-        return "true".equals(PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".cfg.unselectable"));
+        return "true".equals(PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".cfg.unselectable"));
     }
 
     protected void click(WebElement element) {
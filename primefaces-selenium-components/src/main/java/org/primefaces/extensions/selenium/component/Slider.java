@@ -40,13 +40,16 @@ public abstract class Slider extends AbstractInputComponent {
     }
 
     public Number getValue() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getValue();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getValue();");
     }
 
     public void setValue(Number value) {
-        PrimeSelenium.executeScript(getWidgetByIdScript() + ".setValue(" + value + ");");
-        PrimeSelenium.executeScript(getWidgetByIdScript() + ".onSlide(null, { value: " + value + " });");
-        PrimeSelenium.executeScript(isSlideEndAjaxified(), getWidgetByIdScript() + ".onSlideEnd(null, { value: " + value + " });");
+        PrimeSelenium.batch()
+                    .add(getWidgetByIdScript() + ".setValue(" + value + ");")
+                    .add(getWidgetByIdScript() + ".onSlide(null, { value: " + value + " });")
+                    .add(getWidgetByIdScript() + ".onSlideEnd(null, { value: " + value + " });")
+                    .guardAjax(isSlideEndAjaxified())
+                    .execute();
     }
 
 }
@@ -60,7 +60,7 @@ public abstract class TextEditor extends InputText {
      * @return The current contents of the editor, as an HTML string.
      */
     public String getEditorValue() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getEditorValue();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getEditorValue();");
     }
 
     @Override
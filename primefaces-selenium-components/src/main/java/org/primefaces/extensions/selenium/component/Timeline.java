@@ -78,7 +78,7 @@ public abstract class Timeline extends AbstractComponent {
      * @return The number of event in the timeline.
      */
     public long getNumberOfEvents() {
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript() + ".getNumberOfEvents();");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript() + ".getNumberOfEvents();");
     }
 
     /**
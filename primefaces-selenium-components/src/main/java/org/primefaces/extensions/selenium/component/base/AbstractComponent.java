@@ -83,7 +83,7 @@ public abstract class AbstractComponent extends AbstractPrimePageFragment {
         }
         Boolean hasCspRegisteredEvent = false;
         try {
-            hasCspRegisteredEvent = PrimeSelenium.executeScript("return PrimeFaces.csp.hasRegisteredAjaxifiedEvent('" +
+            hasCspRegisteredEvent = PrimeSelenium.executeReadOnlyScript("return PrimeFaces.csp.hasRegisteredAjaxifiedEvent('" +
                         element.getAttribute("id") + "', '" + event + "')");
         }
         catch (JavascriptException ex) {
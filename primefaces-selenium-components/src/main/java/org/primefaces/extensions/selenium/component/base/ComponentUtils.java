@@ -23,6 +23,7 @@ package org.primefaces.extensions.selenium.component.base;
 
 import org.openqa.selenium.WebElement;
 import org.primefaces.extensions.selenium.PrimeSelenium;
+import org.primefaces.extensions.selenium.Quirk;
 
 public final class ComponentUtils {
 
@@ -36,7 +37,7 @@ public final class ComponentUtils {
         }
 
         String id = element.getAttribute("id");
-        String result = PrimeSelenium.executeScript("return " + getWidgetByIdScript(id) + ".getBehavior('" + behavior + "').toString();");
+        String result = PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript(id) + ".getBehavior('" + behavior + "').toString();");
         return isAjaxScript(result);
     }
 
@@ -46,7 +47,7 @@ public final class ComponentUtils {
         }
 
         String id = element.getAttribute("id");
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript(id) + ".hasBehavior('" + behavior + "');");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript(id) + ".hasBehavior('" + behavior + "');");
     }
 
     public static boolean isWidget(WebElement element) {
@@ -55,7 +56,7 @@ public final class ComponentUtils {
             return false;
         }
 
-        return PrimeSelenium.executeScript("return " + getWidgetByIdScript(id) + " != null;");
+        return PrimeSelenium.executeReadOnlyScript("return " + getWidgetByIdScript(id) + " != null;");
     }
 
     public static boolean isAjaxScript(String script) {
@@ -68,7 +69,7 @@ public final class ComponentUtils {
 
     public static String getWidgetConfiguration(WebElement element) {
         String id = element.getAttribute("id");
-        return PrimeSelenium.executeScript("return JSON.stringify(" + getWidgetByIdScript(id) + ".cfg, function(key, value) {\n" +
+        return PrimeSelenium.executeReadOnlyScript("return JSON.stringify(" + getWidgetByIdScript(id) + ".cfg, function(key, value) {\n" +
                     "  if (typeof value === 'function') {\n" +
                     "    return value.toString();\n" +
                     "  } else {\n" +
@@ -93,8 +94,7 @@ public final class ComponentUtils {
             return;
         }
 
-        // using classname here to prevent classloading issues
-        if (PrimeSelenium.isChrome()) {
+        if (PrimeSelenium.getBrowserProfile().has(Quirk.CHROME_SEND_KEYS_ONE_BY_ONE)) {
             // focus the input
             input.click();
 
@@ -22,8 +22,8 @@
 package org.primefaces.extensions.selenium;
 
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
 import org.openqa.selenium.html5.WebStorage;
-import org.openqa.selenium.support.events.EventFiringWebDriver;
 import org.primefaces.extensions.selenium.spi.WebDriverProvider;
 
 public abstract class AbstractPrimePage {
@@ -61,8 +61,8 @@ public abstract class AbstractPrimePage {
     public WebStorage getWebStorage() {
         WebDriver webDriver = this.getWebDriver();
 
-        if (webDriver instanceof EventFiringWebDriver) {
-            EventFiringWebDriver driver = (EventFiringWebDriver) webDriver;
+        if (webDriver instanceof WrapsDriver) {
+            WrapsDriver driver = (WrapsDriver) webDriver;
             webDriver = driver.getWrappedDriver();
         }
 
@@ -73,4 +73,22 @@ public abstract class AbstractPrimePage {
             return null;
         }
     }
+
+    /**
+     * Captures cookies, localStorage and sessionStorage of the current page, e.g. after a login.
+     *
+     * @return the {@link SessionSnapshot}
+     */
+    public SessionSnapshot captureSession() {
+        return SessionSnapshot.capture(getWebDriver());
+    }
+
+    /**
+     * Restores a session captured by {@link #captureSession()}. Navigate to the page afterwards, e.g. via {@link #goTo()}.
+     *
+     * @param snapshot the {@link SessionSnapshot}
+     */
+    public void restoreSession(SessionSnapshot snapshot) {
+        snapshot.restore(getWebDriver());
+    }
 }
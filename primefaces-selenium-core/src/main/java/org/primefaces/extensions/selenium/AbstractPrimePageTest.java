@@ -40,14 +40,20 @@ import org.openqa.selenium.logging.LogEntry;
 import org.openqa.selenium.logging.LogType;
 import org.openqa.selenium.logging.Logs;
 import org.primefaces.extensions.selenium.internal.junit.BootstrapExtension;
+import org.primefaces.extensions.selenium.internal.junit.MetricsExtension;
 import org.primefaces.extensions.selenium.internal.junit.PageInjectionExtension;
+import org.primefaces.extensions.selenium.internal.junit.SessionExtension;
+import org.primefaces.extensions.selenium.internal.junit.ShardExtension;
 import org.primefaces.extensions.selenium.internal.junit.WebDriverExtension;
 import org.primefaces.extensions.selenium.spi.WebDriverProvider;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @ExtendWith(BootstrapExtension.class)
+@ExtendWith(ShardExtension.class)
 @ExtendWith(WebDriverExtension.class)
+@ExtendWith(SessionExtension.class)
+@ExtendWith(MetricsExtension.class)
 @ExtendWith(PageInjectionExtension.class)
 public abstract class AbstractPrimePageTest {
 
@@ -152,14 +158,16 @@ public abstract class AbstractPrimePageTest {
     }
 
     protected void assertClickable(WebElement element) {
-        if (!PrimeSelenium.isElementClickable(element)) {
-            Assertions.fail("Element should be clickable!");
+        ElementState state = PrimeSelenium.getElementState(element);
+        if (!state.isClickable()) {
+            Assertions.fail("Element should be clickable! (" + state + ")");
         }
     }
 
     protected void assertNotClickable(WebElement element) {
-        if (PrimeSelenium.isElementClickable(element)) {
-            Assertions.fail("Element should not be clickable!");
+        ElementState state = PrimeSelenium.getElementState(element);
+        if (state.isClickable()) {
+            Assertions.fail("Element should not be clickable! (" + state + ")");
         }
     }
 
@@ -214,9 +222,7 @@ public abstract class AbstractPrimePageTest {
      * @return either NULL if not available or the {@link LogEntries}
      */
     protected LogEntries getLogsForType(String type) {
-        // Firefox does not support https://github.com/mozilla/geckodriver/issues/284
-        // Safari does not support https://github.com/SeleniumHQ/selenium/issues/7580
-        if (PrimeSelenium.isFirefox() || PrimeSelenium.isSafari()) {
+        if (PrimeSelenium.getBrowserProfile().has(Quirk.NO_BROWSER_LOGS)) {
             return null;
         }
 
@@ -262,25 +268,20 @@ public abstract class AbstractPrimePageTest {
      * @param cssClasses the CSS class or classes to look for
      */
     protected void assertCss(WebElement element, String... cssClasses) {
-        String elementClass = element.getAttribute("class");
+        ElementState state = PrimeSelenium.getElementState(element);
+        if (!state.isPresent()) {
+            Assertions.fail("Element is not present.");
+            return;
+        }
+
+        String elementClass = state.getClassName();
         if (elementClass == null) {
             Assertions.fail("Element did not have CSS 'class' attribute.");
             return;
         }
 
-        String[] elementClasses = elementClass.split(" ");
-
-        boolean result = true;
         for (String expected : cssClasses) {
-            boolean found = false;
-            for (String actual : elementClasses) {
-                if (actual.equalsIgnoreCase(expected)) {
-                    found = true;
-                    break;
-                }
-            }
-
-            if (!found) {
+            if (!state.hasCssClass(expected)) {
                 Assertions.fail("Element expected CSS class '" + expected + "' but was not found in '" + elementClass + "'.");
                 break;
             }
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.primefaces.extensions.selenium.internal.driver.PrimeWebDriver;
+
+/**
+ * Consistent snapshot of the AJAX related state of the current document, captured by a single script. Used for the exception messages of AJAX guards, but
+ * also useful for diagnostics in tests.
+ */
+public class AjaxSnapshot {
+
+    private static final String SCRIPT = "var pf = window.PrimeFaces, pfs = window.pfselenium, queue = [], requests = [];"
+                + "var pfQueue = pf && pf.ajax ? pf.ajax.Queue : null;"
+                + "if (pfQueue && pfQueue.requests) {"
+                + "    pfQueue.requests.forEach(function(cfg) {"
+                + "        var source = cfg.source;"
+                + "        queue.push(typeof source === 'string' ? source : (source && source.id ? source.id : String(source)));"
+                + "    });"
+                + "}"
+                + "if (pfs && pfs.requests) {"
+                + "    for (var id in pfs.requests) { requests.push(pfs.requests[id]); }"
+                + "}"
+                + "return {"
+                + "    readyState: document.readyState,"
+                + "    jQuery: !!window.jQuery,"
+                + "    jQueryActive: window.jQuery ? jQuery.active : null,"
+                + "    primeFaces: !!pf,"
+                + "    ajaxQueueEmpty: pfQueue && pfQueue.isEmpty ? pfQueue.isEmpty() : null,"
+                + "    ajaxQueue: queue,"
+                + "    animationActive: pf ? pf.animationActive : null,"
+                + "    pfselenium: !!pfs,"
+                + "    xhrPending: pfs ? pfs.xhr !== null : null,"
+                + "    activeRequests: pfs ? pfs.activeRequests : null,"
+                + "    requests: requests,"
+                + "    beacons: pfs && pfs.beacons ? pfs.beacons : [],"
+                + "    navigating: pfs ? pfs.navigating : null,"
+                + "    submitting: pfs ? pfs.submitting : null"
+                + "};";
+
+    private final String readyState;
+    private final boolean jQuery;
+    private final Long jQueryActive;
+    private final boolean primeFaces;
+    private final Boolean ajaxQueueEmpty;
+    private final List<String> ajaxQueue;
+    private final Boolean animationActive;
+    private final boolean pfselenium;
+    private final Boolean xhrPending;
+    private final Long activeRequests;
+    private final List<String> requests;
+    private final List<String> beacons;
+    private final Boolean navigating;
+    private final Boolean submitting;
+
+    @SuppressWarnings("unchecked")
+    AjaxSnapshot(Map<String, Object> state) {
+        this.readyState = (String) state.get("readyState");
+        this.jQuery = Boolean.TRUE.equals(state.get("jQuery"));
+        this.jQueryActive = toLong(state.get("jQueryActive"));
+        this.primeFaces = Boolean.TRUE.equals(state.get("primeFaces"));
+        this.ajaxQueueEmpty = (Boolean) state.get("ajaxQueueEmpty");
+        this.ajaxQueue = toStrings((List<Object>) state.get("ajaxQueue"));
+        this.animationActive = (Boolean) state.get("animationActive");
+        this.pfselenium = Boolean.TRUE.equals(state.get("pfselenium"));
+        this.xhrPending = (Boolean) state.get("xhrPending");
+        this.activeRequests = toLong(state.get("activeRequests"));
+        this.requests = toStrings((List<Object>) state.get("requests"));
+        this.beacons = toStrings((List<Object>) state.get("beacons"));
+        this.navigating = (Boolean) state.get("navigating");
+        this.submitting = (Boolean) state.get("submitting");
+    }
+
+    /**
+     * Captures the AJAX state of the current document with a single round trip.
+     *
+     * @param executor the {@link JavascriptExecutor} to use
+     * @return the {@link AjaxSnapshot}
+     */
+    @SuppressWarnings("unchecked")
+    public static AjaxSnapshot capture(JavascriptExecutor executor) {
+        return new AjaxSnapshot((Map<String, Object>) PrimeWebDriver.readOnly(() -> executor.executeScript(SCRIPT)));
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private static List<String> toStrings(List<Object> values) {
+        if (values == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object value : values) {
+            strings.add(value == null ? null : value.toString());
+        }
+        return Collections.unmodifiableList(strings);
+    }
+
+    public String getReadyState() {
+        return readyState;
+    }
+
+    public boolean isJQuery() {
+        return jQuery;
+    }
+
+    public Long getJQueryActive() {
+        return jQueryActive;
+    }
+
+    public boolean isPrimeFaces() {
+        return primeFaces;
+    }
+
+    public Boolean getAjaxQueueEmpty() {
+        return ajaxQueueEmpty;
+    }
+
+    /**
+     * Gets the sources (client ids) of the requests in the PrimeFaces AJAX queue.
+     *
+     * @return the sources
+     */
+    public List<String> getAjaxQueue() {
+        return ajaxQueue;
+    }
+
+    public Boolean getAnimationActive() {
+        return animationActive;
+    }
+
+    public boolean isPfselenium() {
+        return pfselenium;
+    }
+
+    public Boolean getXhrPending() {
+        return xhrPending;
+    }
+
+    public Long getActiveRequests() {
+        return activeRequests;
+    }
+
+    /**
+     * Gets the URLs of the requests (XHR, fetch) which are currently in-flight.
+     *
+     * @return the URLs
+     */
+    public List<String> getRequests() {
+        return requests;
+    }
+
+    /**
+     * Gets the URLs of the last beacons sent by the document. Beacons are not waited for, so they are not part of {@link #getRequests()}.
+     *
+     * @return the URLs
+     */
+    public List<String> getBeacons() {
+        return beacons;
+    }
+
+    public Boolean getNavigating() {
+        return navigating;
+    }
+
+    public Boolean getSubmitting() {
+        return submitting;
+    }
+
+    @Override
+    public String toString() {
+        return "document.readyState=" + readyState + ", "
+                    + "!window.jQuery=" + !jQuery + ", "
+                    + "jQuery.active=" + jQueryActive + ", "
+                    + "!window.PrimeFaces=" + !primeFaces + ", "
+                    + "PrimeFaces.ajax.Queue.isEmpty()=" + ajaxQueueEmpty + ", "
+                    + "PrimeFaces.ajax.Queue.requests=" + ajaxQueue + ", "
+                    + "PrimeFaces.animationActive=" + animationActive + ", "
+                    + "!window.pfselenium=" + !pfselenium + ", "
+                    + "pfselenium.xhr!=null=" + xhrPending + ", "
+                    + "pfselenium.activeRequests=" + activeRequests + ", "
+                    + "pfselenium.requests=" + requests + ", "
+                    + "pfselenium.beacons=" + beacons + ", "
+                    + "pfselenium.navigating=" + navigating + ", "
+                    + "pfselenium.submitting=" + submitting;
+    }
+}
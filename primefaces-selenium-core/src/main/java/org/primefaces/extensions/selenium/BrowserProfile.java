@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.primefaces.extensions.selenium.internal.ConfigProvider;
+import org.primefaces.extensions.selenium.internal.metrics.Metric;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics.Measurement;
+
+/**
+ * Browser family, version, platform and the applying {@link Quirk}s of a driver. Computed once per driver, so hot paths don't have to ask the driver for its
+ * capabilities every time.
+ */
+public class BrowserProfile {
+
+    private static final ThreadLocal<BrowserProfile> CURRENT = new ThreadLocal<>();
+
+    private final WebDriver driver;
+    private final String browserName;
+    private final String version;
+    private final Platform platform;
+    private final Set<Quirk> quirks = EnumSet.noneOf(Quirk.class);
+
+    BrowserProfile(WebDriver driver) {
+        this.driver = driver;
+
+        Capabilities capabilities = driver instanceof HasCapabilities ? ((HasCapabilities) driver).getCapabilities() : null;
+        this.browserName = capabilities == null ? "" : capabilities.getBrowserName();
+        this.version = capabilities == null ? "" : capabilities.getVersion();
+        this.platform = capabilities == null ? Platform.ANY : capabilities.getPlatform();
+
+        Set<String> disabled = ConfigProvider.getInstance().getDisabledQuirks();
+        for (Quirk quirk : Quirk.values()) {
+            if (!disabled.contains(quirk.name()) && quirk.matches(this)) {
+                quirks.add(quirk);
+            }
+        }
+    }
+
+    /**
+     * Gets the profile of a driver, which is cached for the current thread as long as the driver doesn't change.
+     *
+     * @param driver the driver
+     * @return the {@link BrowserProfile}
+     */
+    public static BrowserProfile of(WebDriver driver) {
+        BrowserProfile profile = CURRENT.get();
+        if (profile == null || profile.driver != driver) {
+            profile = new BrowserProfile(driver);
+            CURRENT.set(profile);
+        }
+        return profile;
+    }
+
+    public String getBrowserName() {
+        return browserName;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public Platform getPlatform() {
+        return platform;
+    }
+
+    public boolean isChrome() {
+        return "Chrome".equalsIgnoreCase(browserName);
+    }
+
+    public boolean isFirefox() {
+        return "Firefox".equalsIgnoreCase(browserName);
+    }
+
+    public boolean isSafari() {
+        return "Safari".equalsIgnoreCase(browserName);
+    }
+
+    /**
+     * Does the quirk apply to this browser?
+     *
+     * @param quirk the {@link Quirk}
+     * @return true if it matches the browser and is not disabled
+     */
+    public boolean has(Quirk quirk) {
+        return quirks.contains(quirk);
+    }
+
+    /**
+     * Waits for the delay of the quirk, if it applies to this browser.
+     *
+     * @param quirk the {@link Quirk}
+     */
+    public void delay(Quirk quirk) {
+        if (has(quirk) && quirk.getDelay() > 0) {
+            try (Measurement measurement = Metrics.start(Metric.QUIRK_DELAY)) {
+                Thread.sleep(quirk.getDelay());
+            }
+            catch (InterruptedException ex) {
+                System.err.println("Quirk delay was interrupted!");
+                // Restore interrupted state...
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return browserName + " " + version + " on " + platform + ", quirks=" + quirks;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.primefaces.extensions.selenium.internal.driver.PrimeWebDriver;
+
+/**
+ * Snapshot of the state of an element (presence, visibility, enabled state, CSS classes, text, value and bounding box), captured by a single script instead
+ * of one command per property.
+ */
+public class ElementState {
+
+    /**
+     * Selenium's own visibility check, which the W3C codec of the remote driver executes for {@link WebElement#isDisplayed()}.
+     */
+    private static final String IS_DISPLAYED_ATOM = "/org/openqa/selenium/remote/isDisplayed.js";
+
+    private static final String SCRIPT = "var el = arguments[0];"
+                + "if (!el || !el.ownerDocument || !el.ownerDocument.documentElement.contains(el)) { return null; }"
+                + "var rect = el.getBoundingClientRect();"
+                + "var displayed = !!(" + readAtom(IS_DISPLAYED_ATOM) + ").call(null, el);"
+                // normalized like WebDriver's visible text: trimmed lines without empty ones and non-breaking spaces as plain spaces
+                + "var text = !displayed ? '' : (el.innerText || '').split(/\\r\\n|\\r|\\n/)"
+                + "    .map(function(line) { return line.replace(/^[^\\S\\xa0]+|[^\\S\\xa0]+$/g, ''); })"
+                + "    .filter(function(line) { return line.length > 0; })"
+                + "    .join('\\n').replace(/\\xa0/g, ' ');"
+                + "return {"
+                + "    displayed: displayed,"
+                + "    enabled: !(el.matches && el.matches(':disabled')),"
+                + "    className: el.getAttribute('class'),"
+                + "    text: text,"
+                + "    value: el.value === undefined || el.value === null ? null : String(el.value),"
+                + "    x: rect.left + window.pageXOffset,"
+                + "    y: rect.top + window.pageYOffset,"
+                + "    width: rect.width,"
+                + "    height: rect.height"
+                + "};";
+
+    private static final ElementState ABSENT = new ElementState();
+
+    private final boolean present;
+    private final boolean displayed;
+    private final boolean enabled;
+    private final String className;
+    private final List<String> cssClasses;
+    private final String text;
+    private final String value;
+    private final Rectangle rect;
+
+    private ElementState() {
+        this.present = false;
+        this.displayed = false;
+        this.enabled = false;
+        this.className = null;
+        this.cssClasses = Collections.emptyList();
+        this.text = null;
+        this.value = null;
+        this.rect = null;
+    }
+
+    ElementState(Map<String, Object> state) {
+        this.present = true;
+        this.displayed = Boolean.TRUE.equals(state.get("displayed"));
+        this.enabled = Boolean.TRUE.equals(state.get("enabled"));
+        this.className = (String) state.get("className");
+        this.text = (String) state.get("text");
+        this.value = (String) state.get("value");
+        this.rect = new Rectangle(toInt(state.get("x")), toInt(state.get("y")), toInt(state.get("height")), toInt(state.get("width")));
+
+        List<String> classes = new ArrayList<>();
+        if (className != null) {
+            for (String cssClass : className.split("\\s+")) {
+                if (!cssClass.isEmpty()) {
+                    classes.add(cssClass);
+                }
+            }
+        }
+        this.cssClasses = Collections.unmodifiableList(classes);
+    }
+
+    /**
+     * Captures the state of an element with a single round trip. If the element can't be located or is stale, the state is not present.
+     *
+     * @param executor the {@link JavascriptExecutor} to use
+     * @param element the element
+     * @return the {@link ElementState}
+     */
+    @SuppressWarnings("unchecked")
+    public static ElementState capture(JavascriptExecutor executor, WebElement element) {
+        try {
+            Map<String, Object> state = (Map<String, Object>) PrimeWebDriver.readOnly(() -> executor.executeScript(SCRIPT, element));
+            return state == null ? ABSENT : new ElementState(state);
+        }
+        catch (NoSuchElementException | StaleElementReferenceException e) {
+            return ABSENT;
+        }
+    }
+
+    private static String readAtom(String name) {
+        InputStream atom = ElementState.class.getResourceAsStream(name);
+        if (atom == null) {
+            throw new IllegalStateException("Selenium atom " + name + " not found on the classpath, selenium-remote-driver is required");
+        }
+
+        try (BufferedReader buffer = new BufferedReader(new InputStreamReader(atom, StandardCharsets.UTF_8))) {
+            return buffer.lines().collect(Collectors.joining("\n"));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? (int) Math.round(((Number) value).doubleValue()) : 0;
+    }
+
+    public boolean isPresent() {
+        return present;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Is the element clickable, which means present, displayed, enabled and not disabled by the <code>ui-state-disabled</code> CSS class?
+     *
+     * @return true if clickable
+     */
+    public boolean isClickable() {
+        return present && displayed && enabled && !hasCssClass("ui-state-disabled");
+    }
+
+    /**
+     * Gets the raw value of the <code>class</code> attribute.
+     *
+     * @return the class attribute or null if the element has none
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    public List<String> getCssClasses() {
+        return cssClasses;
+    }
+
+    /**
+     * Checks if the element has a CSS class or classes. If more than one is listed then ALL must be found on the element.
+     *
+     * @param cssClass the CSS class or classes to look for
+     * @return true if the element has the CSS classes
+     */
+    public boolean hasCssClass(String... cssClass) {
+        return Arrays.stream(cssClass).allMatch(expected -> cssClasses.stream().anyMatch(actual -> actual.equalsIgnoreCase(expected)));
+    }
+
+    /**
+     * Gets the visible text of the element. It is based on <code>innerText</code> and normalized like {@link WebElement#getText()} - lines are trimmed,
+     * empty lines removed and non-breaking spaces replaced by plain spaces - but it is not computed by WebDriver's own atom, so it may differ for unusual
+     * markup like CSS generated content or <code>text-transform</code>.
+     *
+     * @return the visible text, empty if the element is not displayed
+     */
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the bounding box of the element, relative to the document.
+     *
+     * @return the bounding box or null if not present
+     */
+    public Rectangle getRect() {
+        return rect;
+    }
+
+    @Override
+    public String toString() {
+        return "present=" + present + ", "
+                    + "displayed=" + displayed + ", "
+                    + "enabled=" + enabled + ", "
+                    + "class=" + className + ", "
+                    + "text=" + text + ", "
+                    + "value=" + value + ", "
+                    + "rect=" + (rect == null ? null : rect.getX() + "," + rect.getY() + " " + rect.getWidth() + "x" + rect.getHeight());
+    }
+}
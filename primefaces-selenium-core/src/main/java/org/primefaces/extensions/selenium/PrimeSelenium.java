@@ -22,10 +22,15 @@
 package org.primefaces.extensions.selenium;
 
 import org.openqa.selenium.*;
-import org.openqa.selenium.support.events.EventFiringWebDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.primefaces.extensions.selenium.internal.ConfigProvider;
 import org.primefaces.extensions.selenium.internal.Guard;
+import org.primefaces.extensions.selenium.internal.Shards;
+import org.primefaces.extensions.selenium.internal.driver.PrimeWebDriver;
+import org.primefaces.extensions.selenium.internal.metrics.Metric;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics.Measurement;
+import org.primefaces.extensions.selenium.internal.wait.PollingWebDriverWait;
 import org.primefaces.extensions.selenium.spi.PrimePageFactory;
 import org.primefaces.extensions.selenium.spi.PrimePageFragmentFactory;
 import org.primefaces.extensions.selenium.spi.PrimeSeleniumAdapter;
@@ -99,12 +104,7 @@ public final class PrimeSelenium {
     public static void goTo(AbstractPrimePage page) {
         WebDriver driver = WebDriverProvider.get();
         driver.get(getUrl(page));
-        if (isSafari()) {
-            /*
-             * Safari has sometimes weird timing issues. (At least on Github Actions.) So wait a bit.
-             */
-            wait(500);
-        }
+        BrowserProfile.of(driver).delay(Quirk.SAFARI_NAVIGATION_DELAY);
     }
 
     /**
@@ -118,7 +118,7 @@ public final class PrimeSelenium {
 
         String baseLocation = page.getBaseLocation();
         if (adapter != null) {
-            baseLocation = adapter.getBaseUrl();
+            baseLocation = adapter.getBaseUrl(Shards.current());
         }
 
         return baseLocation + page.getLocation();
@@ -132,7 +132,7 @@ public final class PrimeSelenium {
      */
     public static String getUrl(String url) {
         PrimeSeleniumAdapter adapter = ConfigProvider.getInstance().getAdapter();
-        return adapter.getBaseUrl() + url;
+        return adapter.getBaseUrl(Shards.current()) + url;
     }
 
     /**
@@ -253,12 +253,8 @@ public final class PrimeSelenium {
      * @return true if enabled
      */
     public static boolean isElementEnabled(WebElement element) {
-        try {
-            return element.isEnabled() && !hasCssClass(element, "ui-state-disabled");
-        }
-        catch (NoSuchElementException | StaleElementReferenceException e) {
-            return false;
-        }
+        ElementState state = getElementState(element);
+        return state.isPresent() && state.isEnabled() && !state.hasCssClass("ui-state-disabled");
     }
 
     /**
@@ -268,7 +264,17 @@ public final class PrimeSelenium {
      * @return true if clickable false if not
      */
     public static boolean isElementClickable(WebElement element) {
-        return isElementDisplayed(element) && isElementEnabled(element) && !hasCssClass(element, "ui-state-disabled");
+        return getElementState(element).isClickable();
+    }
+
+    /**
+     * Captures the state (presence, visibility, enabled state, CSS classes, text, value and bounding box) of an element with a single round trip.
+     *
+     * @param element the WebElement
+     * @return the {@link ElementState}
+     */
+    public static ElementState getElementState(WebElement element) {
+        return ElementState.capture((JavascriptExecutor) getWebDriver(), element);
     }
 
     /**
@@ -318,6 +324,16 @@ public final class PrimeSelenium {
         return Guard.ajax(script, args);
     }
 
+    /**
+     * Captures the AJAX related state of the current document (readyState, jQuery.active, PrimeFaces AJAX queue, in-flight requests, animation and
+     * navigation flags) with a single round trip.
+     *
+     * @return the {@link AjaxSnapshot}
+     */
+    public static AjaxSnapshot getAjaxSnapshot() {
+        return AjaxSnapshot.capture((JavascriptExecutor) getWebDriver());
+    }
+
     /**
      * Executes JavaScript in the browser.
      *
@@ -327,17 +343,34 @@ public final class PrimeSelenium {
      * @return the result of running the JavaScript
      */
     public static <T> T executeScript(String script, Object... args) {
-        JavascriptExecutor executor = (JavascriptExecutor) getWebDriver();
-        T t = (T) executor.executeScript(script, args);
-        if (isSafari()) {
-            /*
-             * Safari has sometimes weird timing issues. (At least on Github Actions.) So wait a bit.
-             */
-            wait(50);
-        }
+        WebDriver driver = getWebDriver();
+        T t = (T) ((JavascriptExecutor) driver).executeScript(script, args);
+        BrowserProfile.of(driver).delay(Quirk.SAFARI_SCRIPT_DELAY);
         return t;
     }
 
+    /**
+     * Executes JavaScript in the browser, which only reads and doesn't change the DOM. Unlike {@link #executeScript(String, Object...)}, it keeps the located
+     * elements cached.
+     *
+     * @param script the script to execute, which must not change the DOM
+     * @param args any arguments to the script
+     * @param <T> the return type
+     * @return the result of running the JavaScript
+     */
+    public static <T> T executeReadOnlyScript(String script, Object... args) {
+        return PrimeWebDriver.readOnly(() -> executeScript(script, args));
+    }
+
+    /**
+     * Creates a {@link ScriptBatch}, which executes several widget calls and DOM reads with a single round trip.
+     *
+     * @return the {@link ScriptBatch}
+     */
+    public static ScriptBatch batch() {
+        return new ScriptBatch();
+    }
+
     /**
      * Executes JavaScript in the browser and will wait if the request is an AJAX request.
      *
@@ -365,7 +398,7 @@ public final class PrimeSelenium {
     public static WebDriverWait waitGui() {
         ConfigProvider config = ConfigProvider.getInstance();
         WebDriver driver = WebDriverProvider.get();
-        WebDriverWait wait = new WebDriverWait(driver, config.getGuiTimeout(), 100);
+        WebDriverWait wait = new PollingWebDriverWait(driver, config.getGuiTimeoutMillis(), Metric.GUI_WAIT);
         return wait;
     }
 
@@ -378,7 +411,7 @@ public final class PrimeSelenium {
         ConfigProvider config = ConfigProvider.getInstance();
         WebDriver driver = WebDriverProvider.get();
 
-        WebDriverWait wait = new WebDriverWait(driver, config.getDocumentLoadTimeout(), 100);
+        WebDriverWait wait = new PollingWebDriverWait(driver, config.getDocumentLoadTimeoutMillis(), Metric.DOCUMENT_LOAD);
         wait.until(PrimeExpectedConditions.documentLoaded());
 
         return wait;
@@ -417,7 +450,7 @@ public final class PrimeSelenium {
      * @see <a href="https://stackoverflow.com/a/64067604/502366">Safari Hack</a>
      */
     public static void clearInput(WebElement input, boolean isAjaxified) {
-        if (PrimeSelenium.isSafari()) {
+        if (getBrowserProfile().has(Quirk.SAFARI_CLEAR_INPUT_WITH_BACKSPACES)) {
             // Safari hack https://stackoverflow.com/a/64067604/502366
             String inputText = input.getAttribute("value");
             if (inputText != null && inputText.length() > 0) {
@@ -446,14 +479,22 @@ public final class PrimeSelenium {
         }
     }
 
+    /**
+     * Gets the {@link BrowserProfile} of the current WebDriver.
+     *
+     * @return the {@link BrowserProfile}
+     */
+    public static BrowserProfile getBrowserProfile() {
+        return BrowserProfile.of(getWebDriver());
+    }
+
     /**
      * Is the current WebDriver a Chrome driver?
      *
      * @return true if Chrome, false if any other browser
      */
     public static boolean isChrome() {
-        Capabilities cap = ((EventFiringWebDriver) getWebDriver()).getCapabilities();
-        return "Chrome".equalsIgnoreCase(cap.getBrowserName());
+        return getBrowserProfile().isChrome();
     }
 
     /**
@@ -462,8 +503,7 @@ public final class PrimeSelenium {
      * @return true if Firefox, false if any other browser
      */
     public static boolean isFirefox() {
-        Capabilities cap = ((EventFiringWebDriver) getWebDriver()).getCapabilities();
-        return "Firefox".equalsIgnoreCase(cap.getBrowserName());
+        return getBrowserProfile().isFirefox();
     }
 
     /**
@@ -472,8 +512,7 @@ public final class PrimeSelenium {
      * @return true if Safari, false if any other browser
      */
     public static boolean isSafari() {
-        Capabilities cap = ((EventFiringWebDriver) getWebDriver()).getCapabilities();
-        return "Safari".equalsIgnoreCase(cap.getBrowserName());
+        return getBrowserProfile().isSafari();
     }
 
     /**
@@ -502,7 +541,7 @@ public final class PrimeSelenium {
      */
     public static void wait(int milliseconds) {
         if (milliseconds > 0) {
-            try {
+            try (Measurement measurement = Metrics.start(Metric.SLEEP)) {
                 Thread.sleep(milliseconds);
             }
             catch (InterruptedException ex) {
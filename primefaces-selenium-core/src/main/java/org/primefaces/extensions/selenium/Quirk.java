@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium;
+
+import java.util.function.Predicate;
+
+/**
+ * Workarounds for browser specific issues. A quirk applies if it matches the {@link BrowserProfile} of the driver and is not disabled via the
+ * <code>disabledQuirks</code> property. Delays of quirks are measured as <code>QUIRK_DELAY</code> by the metrics.
+ */
+public enum Quirk {
+
+    /** Safari has sometimes weird timing issues after navigating. (At least on Github Actions.) So wait a bit. */
+    SAFARI_NAVIGATION_DELAY(BrowserProfile::isSafari, 500),
+
+    /** Safari has sometimes weird timing issues after scripts. (At least on Github Actions.) So wait a bit. */
+    SAFARI_SCRIPT_DELAY(BrowserProfile::isSafari, 50),
+
+    /** Safari doesn't select the text with CTRL/COMMAND+A, so inputs are cleared with backspaces. https://stackoverflow.com/a/64067604/502366 */
+    SAFARI_CLEAR_INPUT_WITH_BACKSPACES(BrowserProfile::isSafari, 0),
+
+    /** Safari doesn't overwrite the text with CTRL/COMMAND+A, so dates are set via JS. */
+    SAFARI_SET_DATE_VIA_SCRIPT(BrowserProfile::isSafari, 0),
+
+    /** Chrome loses keys if they are sent at once, so they are sent one at a time. */
+    CHROME_SEND_KEYS_ONE_BY_ONE(BrowserProfile::isChrome, 0),
+
+    /** Firefox (https://github.com/mozilla/geckodriver/issues/284) and Safari (https://github.com/SeleniumHQ/selenium/issues/7580) don't provide logs. */
+    NO_BROWSER_LOGS(profile -> profile.isFirefox() || profile.isSafari(), 0);
+
+    private final Predicate<BrowserProfile> matcher;
+    private final int delay;
+
+    Quirk(Predicate<BrowserProfile> matcher, int delay) {
+        this.matcher = matcher;
+        this.delay = delay;
+    }
+
+    boolean matches(BrowserProfile profile) {
+        return matcher.test(profile);
+    }
+
+    /**
+     * @return the delay in milliseconds for quirks which wait, otherwise 0
+     */
+    public int getDelay() {
+        return delay;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects widget calls and DOM reads and executes them as one script, so they only cost a single round trip. Every step is a script like it would be passed
+ * to {@link PrimeSelenium#executeScript(String, Object...)}, with its own <code>arguments</code>. Steps run in order; reads return a {@link Result} which is
+ * available after {@link #execute()}.
+ *
+ * <pre>
+ * ScriptBatch batch = PrimeSelenium.batch();
+ * batch.add(widget + ".setValue(5);");
+ * Result&lt;Long&gt; value = batch.read("return " + widget + ".getValue();");
+ * batch.guardAjax(true).execute();
+ * </pre>
+ */
+public class ScriptBatch {
+
+    private final List<String> steps = new ArrayList<>();
+    private final List<Integer> stepArgCounts = new ArrayList<>();
+    private final List<Object> args = new ArrayList<>();
+    private final List<Result<?>> results = new ArrayList<>();
+
+    private boolean guardAjax;
+    private boolean executed;
+
+    ScriptBatch() {
+    }
+
+    /**
+     * Adds a step whose result is not needed.
+     *
+     * @param script the script of the step
+     * @param args the arguments of the step
+     * @return this batch
+     */
+    public ScriptBatch add(String script, Object... args) {
+        addStep(script, args, null);
+        return this;
+    }
+
+    /**
+     * Adds a step which returns a value. It must not change the DOM - a batch of reads only keeps the located elements cached, use
+     * {@link #add(String, Object...)} for widget calls.
+     *
+     * @param script the script of the step, which has to return the value
+     * @param args the arguments of the step
+     * @param <T> the type of the value
+     * @return the {@link Result}, which is available after {@link #execute()}
+     */
+    public <T> Result<T> read(String script, Object... args) {
+        Result<T> result = new Result<>();
+        addStep(script, args, result);
+        return result;
+    }
+
+    /**
+     * Should the batch be executed as a single AJAX unit, which means waiting until all AJAX requests triggered by its steps have completed?
+     *
+     * @param guardAjax true to guard the batch
+     * @return this batch
+     */
+    public ScriptBatch guardAjax(boolean guardAjax) {
+        this.guardAjax = guardAjax;
+        return this;
+    }
+
+    /**
+     * Executes all steps with a single script.
+     */
+    public void execute() {
+        if (executed) {
+            throw new IllegalStateException("Batch has already been executed!");
+        }
+        executed = true;
+
+        if (steps.isEmpty()) {
+            return;
+        }
+
+        // every step runs in its own function, so its return and its arguments are isolated from the other steps
+        StringBuilder script = new StringBuilder("var a = Array.prototype.slice.call(arguments), r = [];");
+        int offset = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            int count = stepArgCounts.get(i);
+            script.append("r.push((function() {").append(steps.get(i)).append("\n}).apply(window, a.slice(")
+                        .append(offset).append(", ").append(offset + count).append(")));");
+            offset += count;
+        }
+        script.append("return r;");
+
+        List<Object> values;
+        if (!guardAjax && !results.contains(null)) {
+            // only reads, see read(String, Object...)
+            values = PrimeSelenium.executeReadOnlyScript(script.toString(), args.toArray());
+        }
+        else {
+            values = PrimeSelenium.executeScript(guardAjax, script.toString(), args.toArray());
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            Result<?> result = results.get(i);
+            if (result != null) {
+                result.set(values == null ? null : values.get(i));
+            }
+        }
+    }
+
+    private void addStep(String script, Object[] stepArgs, Result<?> result) {
+        if (executed) {
+            throw new IllegalStateException("Batch has already been executed!");
+        }
+
+        steps.add(script);
+        results.add(result);
+        stepArgCounts.add(stepArgs == null ? 0 : stepArgs.length);
+        if (stepArgs != null) {
+            Collections.addAll(args, stepArgs);
+        }
+    }
+
+    /**
+     * The value returned by a step of a {@link ScriptBatch}.
+     *
+     * @param <T> the type of the value
+     */
+    public static final class Result<T> {
+
+        private T value;
+        private boolean available;
+
+        private Result() {
+        }
+
+        @SuppressWarnings("unchecked")
+        void set(Object value) {
+            this.value = (T) value;
+            this.available = true;
+        }
+
+        /**
+         * Gets the value returned by the step.
+         *
+         * @return the value
+         * @throws IllegalStateException if the batch has not been executed yet
+         */
+        public T get() {
+            if (!available) {
+                throw new IllegalStateException("Batch has not been executed yet!");
+            }
+            return value;
+        }
+    }
+}
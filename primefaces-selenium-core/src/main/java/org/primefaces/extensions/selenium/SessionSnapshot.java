@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Cookies, localStorage and sessionStorage of the current origin of a driver. Captured once after an expensive setup, like a login, it can be restored into
+ * other fresh or pooled drivers instead of repeating the setup.
+ */
+public class SessionSnapshot {
+
+    private static final String CAPTURE_SCRIPT = "var read = function(s) {"
+                + "  var o = {};"
+                + "  if (s) { for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); } }"
+                + "  return o;"
+                + "};"
+                + "try { return [read(window.localStorage), read(window.sessionStorage)]; } catch (e) { return [{}, {}]; }";
+
+    private static final String RESTORE_SCRIPT = "var write = function(s, o) {"
+                + "  if (s) { s.clear(); for (var k in o) { s.setItem(k, o[k]); } }"
+                + "};"
+                + "try { write(window.localStorage, arguments[0]); write(window.sessionStorage, arguments[1]); } catch (e) { }";
+
+    private final String origin;
+    private final Set<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+
+    public SessionSnapshot(String origin, Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage) {
+        this.origin = origin;
+        this.cookies = Collections.unmodifiableSet(new HashSet<>(cookies));
+        this.localStorage = Collections.unmodifiableMap(new HashMap<>(localStorage));
+        this.sessionStorage = Collections.unmodifiableMap(new HashMap<>(sessionStorage));
+    }
+
+    /**
+     * Captures the session of the page currently loaded by the driver.
+     *
+     * @param driver the {@link WebDriver}
+     * @return the {@link SessionSnapshot}
+     */
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot capture(WebDriver driver) {
+        List<Map<String, Object>> storages = (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+
+        return new SessionSnapshot(getOrigin(driver.getCurrentUrl()),
+                    driver.manage().getCookies(),
+                    toStrings(storages.get(0)),
+                    toStrings(storages.get(1)));
+    }
+
+    /**
+     * Restores this session into the driver. The driver is navigated to the origin of the session first, as cookies and storages can only be set for the
+     * current document. The test has to navigate to its page afterwards.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void restore(WebDriver driver) {
+        String current = driver.getCurrentUrl();
+        if (current == null || !origin.equals(getOrigin(current))) {
+            driver.get(origin + "/");
+        }
+
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : cookies) {
+            try {
+                driver.manage().addCookie(cookie);
+            }
+            catch (WebDriverException e) {
+                // e.g. a cookie of a parent domain, which is rejected by some drivers
+                System.err.println("Cookie '" + cookie.getName() + "' could not be restored: " + e.getMessage());
+            }
+        }
+
+        ((JavascriptExecutor) driver).executeScript(RESTORE_SCRIPT, localStorage, sessionStorage);
+    }
+
+    private static String getOrigin(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return url;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+        }
+        catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static Map<String, String> toStrings(Map<String, Object> storage) {
+        Map<String, String> result = new HashMap<>();
+        if (storage != null) {
+            storage.forEach((key, value) -> result.put(key, value == null ? null : value.toString()));
+        }
+        return result;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public Set<Cookie> getCookies() {
+        return cookies;
+    }
+
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    public Map<String, String> getSessionStorage() {
+        return sessionStorage;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionSnapshot{origin=" + origin + ", cookies=" + cookies.size() + ", localStorage=" + localStorage.size()
+                    + ", sessionStorage=" + sessionStorage.size() + "}";
+    }
+}
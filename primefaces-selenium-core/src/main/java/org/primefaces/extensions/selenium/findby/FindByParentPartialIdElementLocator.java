@@ -25,17 +25,30 @@ import java.util.List;
 
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.primefaces.extensions.selenium.internal.proxy.CssPathLocator;
+import org.primefaces.extensions.selenium.internal.proxy.CssSelectorCompiler;
+import org.primefaces.extensions.selenium.internal.proxy.ElementCache;
 
-public class FindByParentPartialIdElementLocator implements ElementLocator {
+/**
+ * Locates an element by the client id of its parent plus a suffix. The client id of the parent is resolved once per document, so the element itself can be
+ * found with a single lookup from the driver root, which is still restricted to the descendants of the parent unless
+ * {@link FindByParentPartialId#searchFromRoot()} is set.
+ */
+public class FindByParentPartialIdElementLocator implements CssPathLocator {
 
     private final WebDriver driver;
     private final ElementLocator parentLocator;
     private final FindByParentPartialId annotation;
+    private final ElementCache elementCache;
+
+    private String parentId;
+    private long parentIdNavigation;
 
     public FindByParentPartialIdElementLocator(WebDriver driver, ElementLocator parentLocator, FindByParentPartialId annotation) {
         this.driver = driver;
         this.parentLocator = parentLocator;
         this.annotation = annotation;
+        this.elementCache = ElementCache.of(driver);
     }
 
     @Override
@@ -49,24 +62,71 @@ public class FindByParentPartialIdElementLocator implements ElementLocator {
 
     @Override
     public List<WebElement> findElements() {
-        WebElement parent = parentLocator.findElement();
+        boolean cached = parentId != null && parentIdNavigation == elementCache.getNavigation();
 
-        String parentId = parent.getAttribute("id");
-        if (parentId == null || parentId.trim().isEmpty()) {
-            throw new WebDriverException("Id of parent element is null or empty!");
+        List<WebElement> elements = findElements(getParentId());
+        if (elements.isEmpty() && cached) {
+            // the parent may have been replaced by one with another id (e.g. a row of a list), so try once more with a resolved id
+            parentId = null;
+            elements = findElements(getParentId());
         }
+        return elements;
+    }
 
-        By by;
+    private List<WebElement> findElements(String parentId) {
         if (annotation.name().length() > 0) {
-            by = By.name(parentId + annotation.name());
+            By by = By.name(parentId + annotation.name());
+            if (annotation.searchFromRoot()) {
+                return driver.findElements(by);
+            }
+
+            // names are not unique, so they must still be searched below the parent
+            return parentLocator.findElement().findElements(by);
         }
-        else {
-            by = By.id(parentId + annotation.value());
+
+        return driver.findElements(By.cssSelector(getCssPath(parentId)));
+    }
+
+    @Override
+    public String getCssPath() {
+        // only known once the parent id was resolved for the current document
+        if (annotation.name().length() > 0 || parentId == null || parentIdNavigation != elementCache.getNavigation()) {
+            return null;
         }
+        return getCssPath(parentId);
+    }
+
+    /**
+     * Unless {@link FindByParentPartialId#searchFromRoot()} is set, the element must still be a descendant of the parent. Both ids are resolved from the
+     * document root, so it's still a single lookup.
+     *
+     * @param parentId the id of the parent
+     * @return the CSS selector of the element
+     */
+    private String getCssPath(String parentId) {
+        String id = CssSelectorCompiler.id(parentId + annotation.value());
         if (annotation.searchFromRoot()) {
-            return driver.findElements(by);
+            return id;
         }
+        return CssSelectorCompiler.id(parentId) + " " + id;
+    }
+
+    @Override
+    public boolean isCssPathUnique() {
+        return annotation.name().length() == 0;
+    }
 
-        return parent.findElements(by);
+    private String getParentId() {
+        long navigation = elementCache.getNavigation();
+        if (parentId == null || parentIdNavigation != navigation) {
+            String id = parentLocator.findElement().getAttribute("id");
+            if (id == null || id.trim().isEmpty()) {
+                throw new WebDriverException("Id of parent element is null or empty!");
+            }
+
+            parentId = id;
+            parentIdNavigation = navigation;
+        }
+        return parentId;
     }
 }
@@ -26,22 +26,51 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.primefaces.extensions.selenium.internal.guard.AsyncScriptGuardBackend;
+import org.primefaces.extensions.selenium.internal.guard.ScriptGuardBackend;
+import org.primefaces.extensions.selenium.internal.wait.BackoffPollingStrategy;
+import org.primefaces.extensions.selenium.internal.wait.FixedPollingStrategy;
+import org.primefaces.extensions.selenium.spi.GuardBackend;
+import org.primefaces.extensions.selenium.spi.PollingStrategy;
 import org.primefaces.extensions.selenium.spi.PrimeSeleniumAdapter;
 
 public class ConfigProvider {
 
-    private static ConfigProvider configProvider = null;
+    private static volatile ConfigProvider configProvider = null;
 
-    private int guiTimeout = 2;
-    private int ajaxTimeout = 10;
-    private int httpTimeout = 10;
-    private int documentLoadTimeout = 15;
+    private long guiTimeout = 2000;
+    private long ajaxTimeout = 10000;
+    private long httpTimeout = 10000;
+    private long documentLoadTimeout = 15000;
+
+    private String pollingStrategyName = "fixed";
+    private Long pollingInterval;
+    private long pollingMaxInterval = 500;
+    private int pollingAggressivePolls = 5;
+    private double pollingBackoffFactor = 2;
+    private PollingStrategy pollingStrategy;
 
     private boolean disableAnimations = true;
+    private boolean elementCache = true;
+    private boolean webDriverPool = false;
+    private int webDriverMaxReuse = 20;
+    private int parallelMaxBrowsers = 0;
+    private boolean webDriverPrewarm = false;
+    private String guardBackendName = "script";
+    private GuardBackend guardBackend;
+    private Set<String> disabledQuirks = new HashSet<>();
+    private int shards = 1;
+    private String shardDurations;
+    private List<Object> webDriverListeners = new ArrayList<>();
+    private List<String> prewarmPackages = new ArrayList<>();
+    private String metricsReport;
     private PrimeSeleniumAdapter adapter;
     private List<String> onloadScripts;
 
@@ -54,22 +83,47 @@ public class ConfigProvider {
 
                 String guiTimeout = properties.getProperty("guiTimeout");
                 if (guiTimeout != null && !guiTimeout.trim().isEmpty()) {
-                    this.guiTimeout = Integer.parseInt(guiTimeout);
+                    this.guiTimeout = parseDuration(guiTimeout);
                 }
 
                 String ajaxTimeout = properties.getProperty("ajaxTimeout");
                 if (ajaxTimeout != null && !ajaxTimeout.trim().isEmpty()) {
-                    this.ajaxTimeout = Integer.parseInt(ajaxTimeout);
+                    this.ajaxTimeout = parseDuration(ajaxTimeout);
                 }
 
                 String httpTimeout = properties.getProperty("httpTimeout");
                 if (httpTimeout != null && !httpTimeout.trim().isEmpty()) {
-                    this.httpTimeout = Integer.parseInt(httpTimeout);
+                    this.httpTimeout = parseDuration(httpTimeout);
                 }
 
                 String documentLoadTimeout = properties.getProperty("documentLoadTimeout");
                 if (documentLoadTimeout != null && !documentLoadTimeout.trim().isEmpty()) {
-                    this.documentLoadTimeout = Integer.parseInt(documentLoadTimeout);
+                    this.documentLoadTimeout = parseDuration(documentLoadTimeout);
+                }
+
+                String pollingStrategy = properties.getProperty("pollingStrategy");
+                if (pollingStrategy != null && !pollingStrategy.trim().isEmpty()) {
+                    this.pollingStrategyName = pollingStrategy.trim();
+                }
+
+                String pollingInterval = properties.getProperty("pollingInterval");
+                if (pollingInterval != null && !pollingInterval.trim().isEmpty()) {
+                    this.pollingInterval = Long.parseLong(pollingInterval.trim());
+                }
+
+                String pollingMaxInterval = properties.getProperty("pollingMaxInterval");
+                if (pollingMaxInterval != null && !pollingMaxInterval.trim().isEmpty()) {
+                    this.pollingMaxInterval = Long.parseLong(pollingMaxInterval.trim());
+                }
+
+                String pollingAggressivePolls = properties.getProperty("pollingAggressivePolls");
+                if (pollingAggressivePolls != null && !pollingAggressivePolls.trim().isEmpty()) {
+                    this.pollingAggressivePolls = Integer.parseInt(pollingAggressivePolls.trim());
+                }
+
+                String pollingBackoffFactor = properties.getProperty("pollingBackoffFactor");
+                if (pollingBackoffFactor != null && !pollingBackoffFactor.trim().isEmpty()) {
+                    this.pollingBackoffFactor = Double.parseDouble(pollingBackoffFactor.trim());
                 }
 
                 String disableAnimations = properties.getProperty("disableAnimations");
@@ -77,6 +131,77 @@ public class ConfigProvider {
                     this.disableAnimations = Boolean.parseBoolean(disableAnimations);
                 }
 
+                String elementCache = properties.getProperty("elementCache");
+                if (elementCache != null && !elementCache.trim().isEmpty()) {
+                    this.elementCache = Boolean.parseBoolean(elementCache.trim());
+                }
+
+                String webDriverPool = properties.getProperty("webDriverPool");
+                if (webDriverPool != null && !webDriverPool.trim().isEmpty()) {
+                    this.webDriverPool = Boolean.parseBoolean(webDriverPool.trim());
+                }
+
+                String webDriverMaxReuse = properties.getProperty("webDriverMaxReuse");
+                if (webDriverMaxReuse != null && !webDriverMaxReuse.trim().isEmpty()) {
+                    this.webDriverMaxReuse = Integer.parseInt(webDriverMaxReuse.trim());
+                }
+
+                String webDriverPrewarm = properties.getProperty("webDriverPrewarm");
+                if (webDriverPrewarm != null && !webDriverPrewarm.trim().isEmpty()) {
+                    this.webDriverPrewarm = Boolean.parseBoolean(webDriverPrewarm.trim());
+                }
+
+                String parallelMaxBrowsers = properties.getProperty("parallelMaxBrowsers");
+                if (parallelMaxBrowsers != null && !parallelMaxBrowsers.trim().isEmpty()) {
+                    this.parallelMaxBrowsers = Integer.parseInt(parallelMaxBrowsers.trim());
+                }
+
+                String disabledQuirks = properties.getProperty("disabledQuirks");
+                if (disabledQuirks != null && !disabledQuirks.trim().isEmpty()) {
+                    this.disabledQuirks = Arrays.stream(disabledQuirks.split(","))
+                                .map(String::trim)
+                                .filter(quirk -> !quirk.isEmpty())
+                                .collect(Collectors.toSet());
+                }
+
+                String shards = properties.getProperty("shards");
+                if (shards != null && !shards.trim().isEmpty()) {
+                    this.shards = Math.max(1, Integer.parseInt(shards.trim()));
+                }
+
+                String shardDurations = properties.getProperty("shardDurations");
+                if (shardDurations != null && !shardDurations.trim().isEmpty()) {
+                    this.shardDurations = shardDurations.trim();
+                }
+
+                String webDriverListeners = properties.getProperty("webDriverListeners");
+                if (webDriverListeners != null && !webDriverListeners.trim().isEmpty()) {
+                    for (String webDriverListener : webDriverListeners.split(",")) {
+                        if (!webDriverListener.trim().isEmpty()) {
+                            this.webDriverListeners.add(Class.forName(webDriverListener.trim()).newInstance());
+                        }
+                    }
+                }
+
+                String guardBackend = properties.getProperty("guardBackend");
+                if (guardBackend != null && !guardBackend.trim().isEmpty()) {
+                    this.guardBackendName = guardBackend.trim();
+                }
+
+                String prewarmPackages = properties.getProperty("prewarmPackages");
+                if (prewarmPackages != null && !prewarmPackages.trim().isEmpty()) {
+                    for (String prewarmPackage : prewarmPackages.split(",")) {
+                        if (!prewarmPackage.trim().isEmpty()) {
+                            this.prewarmPackages.add(prewarmPackage.trim());
+                        }
+                    }
+                }
+
+                String metricsReport = properties.getProperty("metricsReport");
+                if (metricsReport != null && !metricsReport.trim().isEmpty()) {
+                    this.metricsReport = metricsReport.trim();
+                }
+
                 String adapter = properties.getProperty("adapter");
                 if (adapter != null && !adapter.trim().isEmpty()) {
                     this.adapter = (PrimeSeleniumAdapter) Class.forName(adapter).newInstance();
@@ -87,6 +212,8 @@ public class ConfigProvider {
                 throw new RuntimeException("No 'adapter' set via config.properties!");
             }
 
+            buildPollingStrategy();
+            buildGuardBackend();
             buildOnloadScripts();
         }
         catch (Exception e) {
@@ -94,6 +221,48 @@ public class ConfigProvider {
         }
     }
 
+    /**
+     * Parses a duration like "1500ms" or "2s". Values without unit are seconds, to stay compatible with older configurations.
+     *
+     * @param value the duration
+     * @return the duration in milliseconds
+     */
+    protected long parseDuration(String value) {
+        String duration = value.trim().toLowerCase();
+        if (duration.endsWith("ms")) {
+            return Long.parseLong(duration.substring(0, duration.length() - 2).trim());
+        }
+        if (duration.endsWith("s")) {
+            duration = duration.substring(0, duration.length() - 1).trim();
+        }
+        return (long) (Double.parseDouble(duration) * 1000);
+    }
+
+    protected void buildPollingStrategy() throws Exception {
+        if ("fixed".equalsIgnoreCase(pollingStrategyName)) {
+            pollingStrategy = new FixedPollingStrategy(pollingInterval == null ? 100 : pollingInterval);
+        }
+        else if ("backoff".equalsIgnoreCase(pollingStrategyName)) {
+            pollingStrategy = new BackoffPollingStrategy(pollingInterval == null ? 10 : pollingInterval, pollingAggressivePolls,
+                        pollingBackoffFactor, pollingMaxInterval);
+        }
+        else {
+            pollingStrategy = (PollingStrategy) Class.forName(pollingStrategyName).newInstance();
+        }
+    }
+
+    protected void buildGuardBackend() throws Exception {
+        if ("script".equalsIgnoreCase(guardBackendName)) {
+            guardBackend = new ScriptGuardBackend();
+        }
+        else if ("async".equalsIgnoreCase(guardBackendName)) {
+            guardBackend = new AsyncScriptGuardBackend();
+        }
+        else {
+            guardBackend = (GuardBackend) Class.forName(guardBackendName).newInstance();
+        }
+    }
+
     protected void buildOnloadScripts() throws Exception {
         onloadScripts = new ArrayList<>();
         try (BufferedReader buffer = new BufferedReader(new InputStreamReader(
@@ -110,25 +279,97 @@ public class ConfigProvider {
     }
 
     public int getGuiTimeout() {
+        return toSeconds(guiTimeout);
+    }
+
+    public long getGuiTimeoutMillis() {
         return guiTimeout;
     }
 
     public int getAjaxTimeout() {
+        return toSeconds(ajaxTimeout);
+    }
+
+    public long getAjaxTimeoutMillis() {
         return ajaxTimeout;
     }
 
     public int getHttpTimeout() {
+        return toSeconds(httpTimeout);
+    }
+
+    public long getHttpTimeoutMillis() {
         return httpTimeout;
     }
 
     public int getDocumentLoadTimeout() {
+        return toSeconds(documentLoadTimeout);
+    }
+
+    public long getDocumentLoadTimeoutMillis() {
         return documentLoadTimeout;
     }
 
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy;
+    }
+
     public boolean isDisableAnimations() {
         return disableAnimations;
     }
 
+    public boolean isElementCache() {
+        return elementCache;
+    }
+
+    public boolean isWebDriverPool() {
+        return webDriverPool;
+    }
+
+    public int getWebDriverMaxReuse() {
+        return webDriverMaxReuse;
+    }
+
+    public boolean isWebDriverPrewarm() {
+        return webDriverPrewarm;
+    }
+
+    public int getParallelMaxBrowsers() {
+        return parallelMaxBrowsers;
+    }
+
+    public Set<String> getDisabledQuirks() {
+        return disabledQuirks;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public String getShardDurations() {
+        return shardDurations;
+    }
+
+    /**
+     * @return the configured {@link org.primefaces.extensions.selenium.spi.WebDriverListener}s and
+     *         {@link org.primefaces.extensions.selenium.spi.WebDriverInterceptor}s
+     */
+    public List<Object> getWebDriverListeners() {
+        return webDriverListeners;
+    }
+
+    public GuardBackend getGuardBackend() {
+        return guardBackend;
+    }
+
+    public List<String> getPrewarmPackages() {
+        return prewarmPackages;
+    }
+
+    public String getMetricsReport() {
+        return metricsReport;
+    }
+
     public PrimeSeleniumAdapter getAdapter() {
         return adapter;
     }
@@ -137,11 +378,23 @@ public class ConfigProvider {
         return onloadScripts;
     }
 
-    public static synchronized ConfigProvider getInstance() {
-        if (configProvider == null) {
-            configProvider = new ConfigProvider();
+    private static int toSeconds(long millis) {
+        return (int) Math.ceil(millis / 1000.0);
+    }
+
+    public static ConfigProvider getInstance() {
+        // double-checked, so parallel tests don't contend on a lock for every access
+        ConfigProvider instance = configProvider;
+        if (instance == null) {
+            synchronized (ConfigProvider.class) {
+                instance = configProvider;
+                if (instance == null) {
+                    instance = new ConfigProvider();
+                    configProvider = instance;
+                }
+            }
         }
 
-        return configProvider;
+        return instance;
     }
 }
@@ -34,16 +34,31 @@ import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import org.primefaces.extensions.selenium.PrimeSelenium;
+import org.primefaces.extensions.selenium.AjaxSnapshot;
+import org.primefaces.extensions.selenium.internal.guard.ScriptGuardBackend;
+import org.primefaces.extensions.selenium.internal.metrics.Metric;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics.Measurement;
+import org.primefaces.extensions.selenium.internal.proxy.ElementCache;
+import org.primefaces.extensions.selenium.internal.wait.PollingWebDriverWait;
+import org.primefaces.extensions.selenium.spi.GuardBackend;
 import org.primefaces.extensions.selenium.spi.WebDriverProvider;
 
 import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.TypeCache;
+import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.implementation.InvocationHandlerAdapter;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.ElementMatchers;
 
 public class Guard {
 
+    private static final GuardBackend FALLBACK_BACKEND = new ScriptGuardBackend();
+
+    private static final String HANDLER_FIELD = "$$pfseleniumGuardHandler";
+
+    private static final TypeCache<TypeCache.SimpleKey> PROXY_CACHE = new TypeCache.WithInlineExpunction<>(TypeCache.Sort.SOFT);
+
     private Guard() {
 
     }
@@ -52,24 +67,32 @@ public class Guard {
         OnloadScripts.execute();
 
         return proxy(target, (Object p, Method method, Object[] args) -> {
-            try {
-                PrimeSelenium.executeScript("pfselenium.submitting = true;");
+            try (Measurement measurement = Metrics.start(Metric.HTTP_GUARD)) {
+                try {
+                    OnloadScripts.executeScript("pfselenium.submitting = true;");
 
-                Object result = method.invoke(target, args);
+                    Object result = method.invoke(target, args);
 
-                WebDriver driver = WebDriverProvider.get();
+                    WebDriver driver = WebDriverProvider.get();
 
-                WebDriverWait wait = new WebDriverWait(driver, ConfigProvider.getInstance().getHttpTimeout(), 100);
-                wait.until(d -> {
-                    return (Boolean) ((JavascriptExecutor) driver)
-                                .executeScript("return document.readyState === 'complete'"
-                                            + " && (!window.pfselenium || pfselenium.submitting === false && pfselenium.navigating === false);");
-                });
+                    WebDriverWait wait = new PollingWebDriverWait(driver, ConfigProvider.getInstance().getHttpTimeoutMillis());
+                    wait.until(d -> {
+                        return (Boolean) ((JavascriptExecutor) driver)
+                                    .executeScript("return document.readyState === 'complete'"
+                                                + " && (!window.pfselenium || pfselenium.submitting === false && pfselenium.navigating === false);");
+                    });
 
-                return result;
-            }
-            catch (TimeoutException e) {
-                throw new TimeoutException("Timeout while waiting for document ready!", e);
+                    // most likely a new document, install the onload scripts right away
+                    ElementCache.of(driver).navigated();
+                    OnloadScripts.invalidate();
+                    OnloadScripts.execute();
+
+                    return result;
+                }
+                catch (TimeoutException e) {
+                    measurement.timeout();
+                    throw new TimeoutException("Timeout while waiting for document ready!", e);
+                }
             }
         });
     }
@@ -77,16 +100,19 @@ public class Guard {
     public static <T> T ajax(String script, Object... args) {
         OnloadScripts.execute();
 
-        try {
-            WebDriver driver = WebDriverProvider.get();
-            JavascriptExecutor executor = (JavascriptExecutor) driver;
-            executor.executeScript("pfselenium.xhr = 'somethingJustNotNull';");
-            T result = (T) executor.executeScript(script, args);
-            waitUntilAjaxCompletes(driver);
-            return result;
-        }
-        catch (TimeoutException e) {
-            throw new TimeoutException("Timeout while waiting for AJAX complete!", e);
+        WebDriver driver = WebDriverProvider.get();
+        JavascriptExecutor executor = (JavascriptExecutor) driver;
+        try (Measurement measurement = Metrics.start(Metric.AJAX_GUARD)) {
+            try {
+                OnloadScripts.executeScript("pfselenium.xhr = 'somethingJustNotNull';");
+                T result = (T) executor.executeScript(script, args);
+                waitUntilAjaxCompletes(driver);
+                return result;
+            }
+            catch (TimeoutException e) {
+                measurement.timeout();
+                throw new TimeoutException("Timeout while waiting for AJAX complete! (" + getAjaxDebugInfo(executor) + ")", e);
+            }
         }
     }
 
@@ -100,24 +126,27 @@ public class Guard {
         return proxy(target, (Object p, Method method, Object[] args) -> {
             WebDriver driver = WebDriverProvider.get();
             JavascriptExecutor executor = (JavascriptExecutor) driver;
-            try {
-                executor.executeScript("pfselenium.xhr = 'somethingJustNotNull';");
+            try (Measurement measurement = Metrics.start(Metric.AJAX_GUARD)) {
+                try {
+                    OnloadScripts.executeScript("pfselenium.xhr = 'somethingJustNotNull';");
 
-                // System.out.println("Guard#ajax; ajaxDebugInfo before methode.invoke: " + getAjaxDebugInfo(executor));
-                Object result = method.invoke(target, args);
+                    // System.out.println("Guard#ajax; ajaxDebugInfo before methode.invoke: " + getAjaxDebugInfo(executor));
+                    Object result = method.invoke(target, args);
 
-                // if JS uses setTimeout on the client we want to wait before trying to capture AJAX call
-                if (delayInMilliseconds > 0) {
-                    Thread.sleep(delayInMilliseconds);
-                }
+                    // if JS uses setTimeout on the client we want to wait before trying to capture AJAX call
+                    if (delayInMilliseconds > 0) {
+                        Thread.sleep(delayInMilliseconds);
+                    }
 
-                waitUntilAjaxCompletes(driver);
-                // System.out.println("Guard#ajax; ajaxDebugInfo after methode.invoke and wait: " + getAjaxDebugInfo(executor));
+                    waitUntilAjaxCompletes(driver);
+                    // System.out.println("Guard#ajax; ajaxDebugInfo after methode.invoke and wait: " + getAjaxDebugInfo(executor));
 
-                return result;
-            }
-            catch (TimeoutException e) {
-                throw new TimeoutException("Timeout while waiting for AJAX complete! (" + getAjaxDebugInfo(executor) + ")", e);
+                    return result;
+                }
+                catch (TimeoutException e) {
+                    measurement.timeout();
+                    throw new TimeoutException("Timeout while waiting for AJAX complete! (" + getAjaxDebugInfo(executor) + ")", e);
+                }
             }
             catch (InterruptedException e) {
                 throw new TimeoutException("AJAX Guard delay was interrupted!", e);
@@ -134,30 +163,55 @@ public class Guard {
     }
 
     private static String getAjaxDebugInfo(JavascriptExecutor executor) {
-        return "document.readyState=" + executor.executeScript("return document.readyState;") + ", " +
-                    "!window.jQuery=" + executor.executeScript("return !window.jQuery;") + ", " +
-                    "jQuery.active=" + executor.executeScript("return jQuery.active;") + ", " +
-                    "!window.PrimeFaces=" + executor.executeScript("return !window.PrimeFaces;") + ", " +
-                    "PrimeFaces.ajax.Queue.isEmpty()=" + executor.executeScript("return PrimeFaces.ajax.Queue.isEmpty();") + ", " +
-                    "PrimeFaces.animationActive=" + executor.executeScript("return PrimeFaces.animationActive;") + ", " +
-                    "!window.pfselenium=" + executor.executeScript("return !window.pfselenium;") + ", " +
-                    "pfselenium.xhr=" + executor.executeScript("return pfselenium.xhr;") + ", " +
-                    "pfselenium.navigating=" + executor.executeScript("return pfselenium.navigating;");
+        try {
+            return AjaxSnapshot.capture(executor).toString();
+        }
+        catch (WebDriverException e) {
+            return "AJAX snapshot not available: " + e.getMessage();
+        }
     }
 
     private static void waitUntilAjaxCompletes(WebDriver driver) {
-        WebDriverWait wait = new WebDriverWait(driver, ConfigProvider.getInstance().getAjaxTimeout(), 100);
-        wait.until(d -> {
-            return (Boolean) ((JavascriptExecutor) driver)
-                        .executeScript("return document.readyState === 'complete'"
-                                    + " && (!window.jQuery || jQuery.active == 0)"
-                                    + " && (!window.PrimeFaces || (PrimeFaces.ajax.Queue.isEmpty() && PrimeFaces.animationActive === false))"
-                                    + " && (!window.pfselenium || (pfselenium.xhr === null && pfselenium.navigating === false));");
-        });
+        GuardBackend backend = ConfigProvider.getInstance().getGuardBackend();
+        if (!backend.supports(driver)) {
+            backend = FALLBACK_BACKEND;
+        }
+
+        try {
+            backend.waitUntilAjaxCompletes(driver, ConfigProvider.getInstance().getAjaxTimeoutMillis());
+        }
+        finally {
+            // the AJAX update may have replaced the located elements
+            ElementCache.of(driver).invalidate();
+        }
     }
 
+    @SuppressWarnings("unchecked")
     private static <T> T proxy(T target, InvocationHandler handler) {
-        Class<?> classToProxy = target.getClass();
+        Class<?> targetClass = target.getClass();
+        TypeCache.SimpleKey key = new TypeCache.SimpleKey(targetClass, Arrays.asList(targetClass.getInterfaces()));
+
+        Class<?> proxyClass = PROXY_CACHE.findOrInsert(targetClass.getClassLoader(), key, () -> createProxyClass(targetClass), PROXY_CACHE);
+
+        try {
+            Object proxy = proxyClass.newInstance();
+            proxyClass.getField(HANDLER_FIELD).set(proxy, handler);
+            return (T) proxy;
+        }
+        catch (InstantiationException | IllegalAccessException | NoSuchFieldException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Generates a proxy type for the given class. The generated type delegates to the {@link InvocationHandler} stored in {@link #HANDLER_FIELD}, so it can be
+     * cached and reused for every guarded instance of the same class.
+     *
+     * @param targetClass the class to proxy
+     * @return the generated proxy type
+     */
+    private static Class<?> createProxyClass(Class<?> targetClass) {
+        Class<?> classToProxy = targetClass;
         List<Class> interfacesToImplement = new ArrayList<>();
         ElementMatcher.Junction methods = ElementMatchers.isPublic();
 
@@ -177,20 +231,14 @@ public class Guard {
             }
         }
 
-        Class<T> proxyClass = new ByteBuddy()
+        return new ByteBuddy()
                     .subclass(classToProxy)
                     .implement(interfacesToImplement)
+                    .defineField(HANDLER_FIELD, InvocationHandler.class, Visibility.PUBLIC)
                     .method(methods)
-                    .intercept(InvocationHandlerAdapter.of(handler))
+                    .intercept(InvocationHandlerAdapter.toField(HANDLER_FIELD))
                     .make()
-                    .load(target.getClass().getClassLoader())
+                    .load(targetClass.getClassLoader())
                     .getLoaded();
-
-        try {
-            return proxyClass.newInstance();
-        }
-        catch (InstantiationException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
     }
 }
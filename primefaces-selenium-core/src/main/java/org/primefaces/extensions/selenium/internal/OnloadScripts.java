@@ -22,27 +22,96 @@
 package org.primefaces.extensions.selenium.internal;
 
 import java.util.List;
+import java.util.UUID;
 
+import org.openqa.selenium.WebDriver;
 import org.primefaces.extensions.selenium.PrimeSelenium;
+import org.primefaces.extensions.selenium.internal.metrics.Metric;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics.Measurement;
+import org.primefaces.extensions.selenium.spi.WebDriverProvider;
 
+/**
+ * Installs the onload scripts into the current document. Every installation is tagged with an epoch token (<code>pfselenium.epoch</code>), which is
+ * remembered per thread. As long as no navigation happened, {@link #execute()} doesn't need any browser round trip.
+ */
 public class OnloadScripts {
 
+    private static final String NOT_INSTALLED = "pfselenium-not-installed";
+
+    private static final ThreadLocal<Epoch> EPOCH = new ThreadLocal<>();
+
     private OnloadScripts() {
 
     }
 
     public static void execute() {
-        if (isInstalled()) {
-            return;
+        getEpoch();
+    }
+
+    /**
+     * Marks the current document as unknown, so the next {@link #execute()} checks again if the onload scripts are installed.
+     */
+    public static void invalidate() {
+        EPOCH.remove();
+    }
+
+    /**
+     * Executes a script which requires the onload scripts. Checking the epoch is part of the same round trip - if the document was replaced in the meantime,
+     * the onload scripts are installed again and the script is retried.
+     *
+     * @param script the script to execute
+     * @param <T> the return type
+     * @return the result of running the JavaScript
+     */
+    public static <T> T executeScript(String script) {
+        String guardedScript = "if (!window.pfselenium || pfselenium.epoch !== arguments[0]) { return '" + NOT_INSTALLED + "'; } " + script;
+
+        // the scripts only read and set the state of pfselenium, not the DOM
+        Object result = PrimeSelenium.executeReadOnlyScript(guardedScript, getEpoch());
+        if (NOT_INSTALLED.equals(result)) {
+            invalidate();
+            result = PrimeSelenium.executeReadOnlyScript(guardedScript, getEpoch());
         }
 
-        List<String> onloadScripts = ConfigProvider.getInstance().getOnloadScripts();
-        PrimeSelenium.executeScript("(function () { " + String.join(";", onloadScripts) + " })();");
+        return (T) result;
     }
 
-    private static boolean isInstalled() {
-        PrimeSelenium.waitDocumentLoad();
+    private static String getEpoch() {
+        WebDriver driver = WebDriverProvider.get();
+
+        Epoch epoch = EPOCH.get();
+        if (epoch == null || epoch.driver != driver) {
+            epoch = new Epoch(driver, install());
+            EPOCH.set(epoch);
+        }
 
-        return PrimeSelenium.executeScript("return window.pfselenium != null;");
+        return epoch.token;
+    }
+
+    private static String install() {
+        try (Measurement measurement = Metrics.start(Metric.ONLOAD_SCRIPTS)) {
+            PrimeSelenium.waitDocumentLoad();
+
+            List<String> onloadScripts = ConfigProvider.getInstance().getOnloadScripts();
+            return PrimeSelenium.executeScript("if (window.pfselenium) {"
+                        + "    if (!pfselenium.epoch) { pfselenium.epoch = arguments[0]; }"
+                        + "    return pfselenium.epoch;"
+                        + "}"
+                        + "(function () { " + String.join(";", onloadScripts) + " })();"
+                        + "pfselenium.epoch = arguments[0];"
+                        + "return pfselenium.epoch;", UUID.randomUUID().toString());
+        }
+    }
+
+    private static final class Epoch {
+
+        private final WebDriver driver;
+        private final String token;
+
+        Epoch(WebDriver driver, String token) {
+            this.driver = driver;
+            this.token = token;
+        }
     }
 }
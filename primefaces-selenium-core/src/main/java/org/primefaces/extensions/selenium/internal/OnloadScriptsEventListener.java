@@ -21,39 +21,54 @@
  */
 package org.primefaces.extensions.selenium.internal;
 
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.events.AbstractWebDriverEventListener;
+import java.util.EnumSet;
+import java.util.Set;
 
-public class OnloadScriptsEventListener extends AbstractWebDriverEventListener {
+import org.primefaces.extensions.selenium.internal.proxy.ElementCache;
+import org.primefaces.extensions.selenium.spi.WebDriverCommand;
+import org.primefaces.extensions.selenium.spi.WebDriverListener;
 
-    @Override
-    public void afterNavigateTo(String url, WebDriver driver) {
-        OnloadScripts.execute();
-    }
-
-    @Override
-    public void afterNavigateBack(WebDriver driver) {
-        OnloadScripts.execute();
-    }
+/**
+ * Installs the onload scripts and invalidates the {@link ElementCache} after every navigation. Clicks only install them if the document is unknown yet; if a
+ * click replaces the document, the next guard detects it by the epoch of the document. Clicks, value changes, scripts and actions invalidate the
+ * {@link ElementCache} too, as they may change which elements match a locator without replacing them, unless they are
+ * {@link WebDriverCommand#isReadOnly() read-only}. A submit usually loads a new document, so it counts as
+ * navigation, but the onload scripts are only installed by the next command which needs them, as the new document may still be loading.
+ */
+public class OnloadScriptsEventListener implements WebDriverListener {
 
-    @Override
-    public void afterNavigateForward(WebDriver driver) {
-        OnloadScripts.execute();
-    }
+    private static final Set<WebDriverCommand.Type> COMMAND_TYPES = EnumSet.of(WebDriverCommand.Type.GET, WebDriverCommand.Type.NAVIGATE_TO,
+                WebDriverCommand.Type.NAVIGATE_BACK, WebDriverCommand.Type.NAVIGATE_FORWARD, WebDriverCommand.Type.NAVIGATE_REFRESH,
+                WebDriverCommand.Type.CLICK, WebDriverCommand.Type.SUBMIT, WebDriverCommand.Type.SEND_KEYS, WebDriverCommand.Type.CLEAR,
+                WebDriverCommand.Type.EXECUTE_SCRIPT, WebDriverCommand.Type.EXECUTE_ASYNC_SCRIPT, WebDriverCommand.Type.PERFORM);
 
     @Override
-    public void afterNavigateRefresh(WebDriver driver) {
-        OnloadScripts.execute();
+    public Set<WebDriverCommand.Type> getCommandTypes() {
+        return COMMAND_TYPES;
     }
 
     @Override
-    public void beforeClickOn(WebElement element, WebDriver driver) {
-        OnloadScripts.execute();
+    public void beforeCommand(WebDriverCommand command) {
+        if (command.getType() == WebDriverCommand.Type.CLICK || command.getType() == WebDriverCommand.Type.SUBMIT) {
+            OnloadScripts.execute();
+        }
     }
 
     @Override
-    public void afterClickOn(WebElement element, WebDriver driver) {
-        OnloadScripts.execute();
+    public void afterCommand(WebDriverCommand command, Object result, long nanos) {
+        WebDriverCommand.Type type = command.getType();
+        if (type.isNavigation()) {
+            ElementCache.of(command.getDriver()).navigated();
+            OnloadScripts.invalidate();
+            OnloadScripts.execute();
+        }
+        else if (type == WebDriverCommand.Type.SUBMIT) {
+            ElementCache.of(command.getDriver()).navigated();
+            OnloadScripts.invalidate();
+        }
+        else if (!command.isReadOnly()) {
+            // clicks, value changes, scripts and actions may update the DOM on the client side only, which is not covered by a guard
+            ElementCache.of(command.getDriver()).invalidate();
+        }
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spreads the test classes across the configured <code>shards</code>. Classes with a known duration from the <code>shardDurations</code> file are assigned
+ * longest first to the shard with the least total duration (LPT), so all shards finish at about the same time. Classes without a known duration are assigned
+ * by the hash of their name. Both are deterministic, independent of the order the classes are executed in.
+ */
+public class Shards {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private static final Map<String, Long> MEASURED = new ConcurrentHashMap<>();
+
+    private static volatile Map<String, Integer> assignments;
+
+    private Shards() {
+    }
+
+    /**
+     * @return the shard of the test class executed by the current thread, 0 if none is set
+     */
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public static void setCurrent(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        }
+        else {
+            CURRENT.set(shard);
+        }
+    }
+
+    /**
+     * Gets the shard of a test class.
+     *
+     * @param testClass the name of the test class
+     * @return the shard, from 0 to <code>shards - 1</code>
+     */
+    public static int assign(String testClass) {
+        int shards = ConfigProvider.getInstance().getShards();
+        if (shards <= 1) {
+            return 0;
+        }
+
+        Integer shard = getAssignments().get(testClass);
+        if (shard != null) {
+            return shard;
+        }
+        return Math.floorMod(testClass.hashCode(), shards);
+    }
+
+    /**
+     * Records the duration of a test class for the next run, see {@link #writeDurations()}.
+     *
+     * @param testClass the name of the test class
+     * @param millis the duration in milliseconds
+     */
+    public static void record(String testClass, long millis) {
+        MEASURED.put(testClass, millis);
+    }
+
+    /**
+     * Writes the known durations, updated by the ones measured in this run, to the <code>shardDurations</code> file.
+     *
+     * @throws IOException if the file can't be written
+     */
+    public static void writeDurations() throws IOException {
+        String file = ConfigProvider.getInstance().getShardDurations();
+        if (file == null || MEASURED.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> durations = new TreeMap<>(readDurations(Paths.get(file)));
+        durations.putAll(MEASURED);
+
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, Long> duration : durations.entrySet()) {
+            content.append(duration.getKey()).append('=').append(duration.getValue()).append('\n');
+        }
+
+        Files.write(Paths.get(file), content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Integer> getAssignments() {
+        Map<String, Integer> result = assignments;
+        if (result == null) {
+            synchronized (Shards.class) {
+                result = assignments;
+                if (result == null) {
+                    String file = ConfigProvider.getInstance().getShardDurations();
+                    Map<String, Long> durations = file == null ? Collections.emptyMap() : readDurations(Paths.get(file));
+                    result = assign(durations, ConfigProvider.getInstance().getShards());
+                    assignments = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> assign(Map<String, Long> durations, int shards) {
+        List<Map.Entry<String, Long>> classes = new ArrayList<>(durations.entrySet());
+        // longest first, the name breaks ties so the assignment doesn't depend on the file order
+        classes.sort((c1, c2) -> {
+            int result = Long.compare(c2.getValue(), c1.getValue());
+            return result != 0 ? result : c1.getKey().compareTo(c2.getKey());
+        });
+
+        long[] loads = new long[shards];
+        Map<String, Integer> result = new HashMap<>();
+        for (Map.Entry<String, Long> testClass : classes) {
+            int shard = 0;
+            for (int i = 1; i < shards; i++) {
+                if (loads[i] < loads[shard]) {
+                    shard = i;
+                }
+            }
+            loads[shard] += testClass.getValue();
+            result.put(testClass.getKey(), shard);
+        }
+        return result;
+    }
+
+    private static Map<String, Long> readDurations(Path file) {
+        Map<String, Long> durations = new HashMap<>();
+        if (!Files.exists(file)) {
+            return durations;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(file)) {
+            properties.load(is);
+        }
+        catch (IOException e) {
+            System.err.println("Could not read shard durations from " + file + ": " + e.getMessage());
+            return durations;
+        }
+
+        for (String testClass : properties.stringPropertyNames()) {
+            try {
+                durations.put(testClass, Long.parseLong(properties.getProperty(testClass).trim()));
+            }
+            catch (NumberFormatException e) {
+                // ignore, the class is assigned by its hash
+            }
+        }
+        return durations;
+    }
+}
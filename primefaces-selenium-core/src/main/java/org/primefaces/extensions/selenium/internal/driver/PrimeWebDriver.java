@@ -0,0 +1,517 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.driver;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.HasInputDevices;
+import org.openqa.selenium.interactions.Interactive;
+import org.openqa.selenium.interactions.Keyboard;
+import org.openqa.selenium.interactions.Mouse;
+import org.openqa.selenium.interactions.Sequence;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics;
+import org.primefaces.extensions.selenium.internal.proxy.ElementCache;
+import org.primefaces.extensions.selenium.spi.WebDriverCommand;
+import org.primefaces.extensions.selenium.spi.WebDriverInterceptor;
+import org.primefaces.extensions.selenium.spi.WebDriverListener;
+
+/**
+ * Lean replacement of Selenium's <code>EventFiringWebDriver</code>. It delegates directly to the wrapped driver, without reflection, and notifies the
+ * registered {@link WebDriverListener}s and {@link WebDriverInterceptor}s about the commands they are interested in. Commands nobody is interested in cost
+ * one extra call and an array lookup. Every command is counted as round trip of the running {@link Metrics} measurement.
+ */
+public class PrimeWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot, WrapsDriver, HasInputDevices, Interactive, HasCapabilities {
+
+    // set while the commands of the current thread only read, see WebDriverCommand#isReadOnly()
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private final WebDriver driver;
+
+    private final List<WebDriverListener> listeners = new ArrayList<>();
+    private final List<WebDriverInterceptor> interceptors = new ArrayList<>();
+
+    // per command type, null if nobody is interested in it
+    private volatile Dispatch[] dispatches = new Dispatch[WebDriverCommand.Type.values().length];
+
+    public PrimeWebDriver(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public synchronized PrimeWebDriver register(WebDriverListener listener) {
+        listeners.add(listener);
+        updateDispatches();
+        return this;
+    }
+
+    public synchronized PrimeWebDriver register(WebDriverInterceptor interceptor) {
+        interceptors.add(interceptor);
+        updateDispatches();
+        return this;
+    }
+
+    public synchronized PrimeWebDriver unregister(WebDriverListener listener) {
+        listeners.remove(listener);
+        updateDispatches();
+        return this;
+    }
+
+    public synchronized PrimeWebDriver unregister(WebDriverInterceptor interceptor) {
+        interceptors.remove(interceptor);
+        updateDispatches();
+        return this;
+    }
+
+    private void updateDispatches() {
+        WebDriverCommand.Type[] types = WebDriverCommand.Type.values();
+        Dispatch[] result = new Dispatch[types.length];
+        for (WebDriverCommand.Type type : types) {
+            List<WebDriverListener> typeListeners = new ArrayList<>();
+            for (WebDriverListener listener : listeners) {
+                if (listener.getCommandTypes().contains(type)) {
+                    typeListeners.add(listener);
+                }
+            }
+            List<WebDriverInterceptor> typeInterceptors = new ArrayList<>();
+            for (WebDriverInterceptor interceptor : interceptors) {
+                if (interceptor.getCommandTypes().contains(type)) {
+                    typeInterceptors.add(interceptor);
+                }
+            }
+
+            if (!typeListeners.isEmpty() || !typeInterceptors.isEmpty()) {
+                result[type.ordinal()] = new Dispatch(typeListeners.toArray(new WebDriverListener[0]),
+                            typeInterceptors.toArray(new WebDriverInterceptor[0]));
+            }
+        }
+        dispatches = result;
+    }
+
+    /**
+     * Sends the commands of the given supplier as read-only commands, so listeners like the one of the element cache know that they don't change the DOM.
+     *
+     * @param commands the commands, which must not change the DOM
+     * @param <T> the return type
+     * @return the result of the commands
+     */
+    public static <T> T readOnly(Supplier<T> commands) {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        try {
+            return commands.get();
+        }
+        finally {
+            if (previous == null) {
+                READ_ONLY.remove();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T execute(WebDriverCommand.Type type, WebElement element, Object[] args, WebDriverInterceptor.Invocation invocation) {
+        Metrics.roundTrip();
+
+        Dispatch dispatch = dispatches[type.ordinal()];
+        if (dispatch == null) {
+            return (T) invocation.proceed();
+        }
+
+        WebDriverCommand command = new WebDriverCommand(type, this, element, args, READ_ONLY.get() != null);
+        for (WebDriverListener listener : dispatch.listeners) {
+            listener.beforeCommand(command);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = proceed(dispatch, command, 0, invocation);
+            long nanos = System.nanoTime() - start;
+            for (WebDriverListener listener : dispatch.listeners) {
+                listener.afterCommand(command, result, nanos);
+            }
+            return (T) result;
+        }
+        catch (RuntimeException e) {
+            long nanos = System.nanoTime() - start;
+            for (WebDriverListener listener : dispatch.listeners) {
+                listener.onException(command, e, nanos);
+            }
+            throw e;
+        }
+    }
+
+    private static Object proceed(Dispatch dispatch, WebDriverCommand command, int index, WebDriverInterceptor.Invocation invocation) {
+        if (index >= dispatch.interceptors.length) {
+            return invocation.proceed();
+        }
+        return dispatch.interceptors[index].intercept(command, () -> proceed(dispatch, command, index + 1, invocation));
+    }
+
+    WebElement wrap(WebElement element) {
+        return element == null ? null : new PrimeWebElement(this, element);
+    }
+
+    List<WebElement> wrap(List<WebElement> elements) {
+        List<WebElement> result = new ArrayList<>(elements.size());
+        for (WebElement element : elements) {
+            result.add(wrap(element));
+        }
+        return result;
+    }
+
+    @Override
+    public void get(String url) {
+        execute(WebDriverCommand.Type.GET, null, new Object[] {url}, () -> {
+            driver.get(url);
+            return null;
+        });
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return execute(WebDriverCommand.Type.GET_CURRENT_URL, null, null, driver::getCurrentUrl);
+    }
+
+    @Override
+    public String getTitle() {
+        return execute(WebDriverCommand.Type.GET_TITLE, null, null, driver::getTitle);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return execute(WebDriverCommand.Type.FIND_ELEMENTS, null, new Object[] {by}, () -> wrap(driver.findElements(by)));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return execute(WebDriverCommand.Type.FIND_ELEMENT, null, new Object[] {by}, () -> wrap(driver.findElement(by)));
+    }
+
+    @Override
+    public String getPageSource() {
+        return execute(WebDriverCommand.Type.GET_PAGE_SOURCE, null, null, driver::getPageSource);
+    }
+
+    @Override
+    public void close() {
+        execute(WebDriverCommand.Type.CLOSE, null, null, () -> {
+            driver.close();
+            return null;
+        });
+    }
+
+    @Override
+    public void quit() {
+        execute(WebDriverCommand.Type.QUIT, null, null, () -> {
+            driver.quit();
+            return null;
+        });
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return execute(WebDriverCommand.Type.GET_WINDOW_HANDLES, null, null, driver::getWindowHandles);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return execute(WebDriverCommand.Type.GET_WINDOW_HANDLE, null, null, driver::getWindowHandle);
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return new PrimeTargetLocator(driver.switchTo());
+    }
+
+    @Override
+    public Navigation navigate() {
+        return new PrimeNavigation(driver.navigate());
+    }
+
+    @Override
+    public Options manage() {
+        return driver.manage();
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        Object[] unpacked = unpack(args);
+        return execute(WebDriverCommand.Type.EXECUTE_SCRIPT, null, args, () -> ((JavascriptExecutor) driver).executeScript(script, unpacked));
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        Object[] unpacked = unpack(args);
+        return execute(WebDriverCommand.Type.EXECUTE_ASYNC_SCRIPT, null, args, () -> ((JavascriptExecutor) driver).executeAsyncScript(script, unpacked));
+    }
+
+    /**
+     * Replaces the decorated elements in script arguments by the elements of the wrapped driver. Only copies the arguments if needed.
+     *
+     * @param args the script arguments
+     * @return the unpacked arguments
+     */
+    private static Object[] unpack(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+
+        Object[] result = args;
+        for (int i = 0; i < args.length; i++) {
+            Object arg = unpack(args[i]);
+            if (arg != args[i]) {
+                if (result == args) {
+                    result = args.clone();
+                }
+                result[i] = arg;
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object unpack(Object arg) {
+        if (arg instanceof PrimeWebElement) {
+            return ((PrimeWebElement) arg).getWrappedElement();
+        }
+        if (arg instanceof List) {
+            List<Object> result = new ArrayList<>();
+            for (Object element : (List<Object>) arg) {
+                result.add(unpack(element));
+            }
+            return result;
+        }
+        if (arg instanceof Map) {
+            Map<Object, Object> result = new LinkedHashMap<>();
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) arg).entrySet()) {
+                result.put(entry.getKey(), unpack(entry.getValue()));
+            }
+            return result;
+        }
+        return arg;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        if (!(driver instanceof TakesScreenshot)) {
+            throw new UnsupportedOperationException("Underlying driver instance does not support taking screenshots");
+        }
+        return execute(WebDriverCommand.Type.SCREENSHOT, null, new Object[] {target}, () -> ((TakesScreenshot) driver).getScreenshotAs(target));
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public Keyboard getKeyboard() {
+        if (!(driver instanceof HasInputDevices)) {
+            throw new UnsupportedOperationException("Underlying driver does not implement advanced user interactions yet.");
+        }
+        return ((HasInputDevices) driver).getKeyboard();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public Mouse getMouse() {
+        if (!(driver instanceof HasInputDevices)) {
+            throw new UnsupportedOperationException("Underlying driver does not implement advanced user interactions yet.");
+        }
+        return ((HasInputDevices) driver).getMouse();
+    }
+
+    @Override
+    public void perform(Collection<Sequence> actions) {
+        if (!(driver instanceof Interactive)) {
+            throw new UnsupportedOperationException("Underlying driver does not implement advanced user interactions yet.");
+        }
+        execute(WebDriverCommand.Type.PERFORM, null, new Object[] {actions}, () -> {
+            ((Interactive) driver).perform(actions);
+            return null;
+        });
+    }
+
+    @Override
+    public void resetInputState() {
+        if (!(driver instanceof Interactive)) {
+            throw new UnsupportedOperationException("Underlying driver does not implement advanced user interactions yet.");
+        }
+        ((Interactive) driver).resetInputState();
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        if (!(driver instanceof HasCapabilities)) {
+            throw new UnsupportedOperationException("Underlying driver does not implement getting capabilities yet.");
+        }
+        return ((HasCapabilities) driver).getCapabilities();
+    }
+
+    private static final class Dispatch {
+
+        private final WebDriverListener[] listeners;
+        private final WebDriverInterceptor[] interceptors;
+
+        Dispatch(WebDriverListener[] listeners, WebDriverInterceptor[] interceptors) {
+            this.listeners = listeners;
+            this.interceptors = interceptors;
+        }
+    }
+
+    private class PrimeNavigation implements Navigation {
+
+        private final Navigation navigation;
+
+        PrimeNavigation(Navigation navigation) {
+            this.navigation = navigation;
+        }
+
+        @Override
+        public void back() {
+            execute(WebDriverCommand.Type.NAVIGATE_BACK, null, null, () -> {
+                navigation.back();
+                return null;
+            });
+        }
+
+        @Override
+        public void forward() {
+            execute(WebDriverCommand.Type.NAVIGATE_FORWARD, null, null, () -> {
+                navigation.forward();
+                return null;
+            });
+        }
+
+        @Override
+        public void to(String url) {
+            execute(WebDriverCommand.Type.NAVIGATE_TO, null, new Object[] {url}, () -> {
+                navigation.to(url);
+                return null;
+            });
+        }
+
+        @Override
+        public void to(URL url) {
+            execute(WebDriverCommand.Type.NAVIGATE_TO, null, new Object[] {url}, () -> {
+                navigation.to(url);
+                return null;
+            });
+        }
+
+        @Override
+        public void refresh() {
+            execute(WebDriverCommand.Type.NAVIGATE_REFRESH, null, null, () -> {
+                navigation.refresh();
+                return null;
+            });
+        }
+    }
+
+    private class PrimeTargetLocator implements TargetLocator {
+
+        private final TargetLocator targetLocator;
+
+        PrimeTargetLocator(TargetLocator targetLocator) {
+            this.targetLocator = targetLocator;
+        }
+
+        @Override
+        public WebDriver frame(int index) {
+            Metrics.roundTrip();
+            targetLocator.frame(index);
+            return switched();
+        }
+
+        @Override
+        public WebDriver frame(String nameOrId) {
+            Metrics.roundTrip();
+            targetLocator.frame(nameOrId);
+            return switched();
+        }
+
+        @Override
+        public WebDriver frame(WebElement frameElement) {
+            Metrics.roundTrip();
+            targetLocator.frame((WebElement) unpack(frameElement));
+            return switched();
+        }
+
+        @Override
+        public WebDriver parentFrame() {
+            Metrics.roundTrip();
+            targetLocator.parentFrame();
+            return switched();
+        }
+
+        @Override
+        public WebDriver window(String nameOrHandle) {
+            Metrics.roundTrip();
+            targetLocator.window(nameOrHandle);
+            return switched();
+        }
+
+        @Override
+        public WebDriver defaultContent() {
+            Metrics.roundTrip();
+            targetLocator.defaultContent();
+            return switched();
+        }
+
+        @Override
+        public WebElement activeElement() {
+            Metrics.roundTrip();
+            return wrap(targetLocator.activeElement());
+        }
+
+        @Override
+        public Alert alert() {
+            return targetLocator.alert();
+        }
+
+        /**
+         * Another browsing context has another document, so neither the cached elements nor the client ids of the previous one apply.
+         *
+         * @return the driver
+         */
+        private WebDriver switched() {
+            ElementCache.of(PrimeWebDriver.this).navigated();
+            return PrimeWebDriver.this;
+        }
+    }
+}
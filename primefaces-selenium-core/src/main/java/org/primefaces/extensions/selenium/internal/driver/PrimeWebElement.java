@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.driver;
+
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+import org.primefaces.extensions.selenium.spi.WebDriverCommand;
+
+/**
+ * Element returned by the {@link PrimeWebDriver}, which sends its commands through the listeners and interceptors of the driver.
+ */
+public class PrimeWebElement implements WebElement, WrapsElement, WrapsDriver, Locatable {
+
+    private final PrimeWebDriver driver;
+    private final WebElement element;
+
+    PrimeWebElement(PrimeWebDriver driver, WebElement element) {
+        this.driver = driver;
+        this.element = element;
+    }
+
+    @Override
+    public void click() {
+        driver.execute(WebDriverCommand.Type.CLICK, this, null, () -> {
+            element.click();
+            return null;
+        });
+    }
+
+    @Override
+    public void submit() {
+        driver.execute(WebDriverCommand.Type.SUBMIT, this, null, () -> {
+            element.submit();
+            return null;
+        });
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        driver.execute(WebDriverCommand.Type.SEND_KEYS, this, keysToSend, () -> {
+            element.sendKeys(keysToSend);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        driver.execute(WebDriverCommand.Type.CLEAR, this, null, () -> {
+            element.clear();
+            return null;
+        });
+    }
+
+    @Override
+    public String getTagName() {
+        return driver.execute(WebDriverCommand.Type.GET_TAG_NAME, this, null, element::getTagName);
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return driver.execute(WebDriverCommand.Type.GET_ATTRIBUTE, this, new Object[] {name}, () -> element.getAttribute(name));
+    }
+
+    @Override
+    public boolean isSelected() {
+        return driver.<Boolean> execute(WebDriverCommand.Type.IS_SELECTED, this, null, element::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return driver.<Boolean> execute(WebDriverCommand.Type.IS_ENABLED, this, null, element::isEnabled);
+    }
+
+    @Override
+    public String getText() {
+        return driver.execute(WebDriverCommand.Type.GET_TEXT, this, null, element::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return driver.execute(WebDriverCommand.Type.FIND_ELEMENTS, this, new Object[] {by}, () -> driver.wrap(element.findElements(by)));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return driver.execute(WebDriverCommand.Type.FIND_ELEMENT, this, new Object[] {by}, () -> driver.wrap(element.findElement(by)));
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return driver.<Boolean> execute(WebDriverCommand.Type.IS_DISPLAYED, this, null, element::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation() {
+        return driver.execute(WebDriverCommand.Type.GET_LOCATION, this, null, element::getLocation);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return driver.execute(WebDriverCommand.Type.GET_SIZE, this, null, element::getSize);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return driver.execute(WebDriverCommand.Type.GET_RECT, this, null, element::getRect);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return driver.execute(WebDriverCommand.Type.GET_CSS_VALUE, this, new Object[] {propertyName}, () -> element.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return driver.execute(WebDriverCommand.Type.SCREENSHOT, this, new Object[] {target}, () -> element.getScreenshotAs(target));
+    }
+
+    @Override
+    public WebElement getWrappedElement() {
+        return element;
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+
+    @Override
+    public Coordinates getCoordinates() {
+        return ((Locatable) element).getCoordinates();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof WebElement)) {
+            return false;
+        }
+
+        Object other = obj;
+        if (other instanceof PrimeWebElement) {
+            other = ((PrimeWebElement) other).getWrappedElement();
+        }
+        return element.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return element.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return element.toString();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.guard;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.primefaces.extensions.selenium.internal.ConfigProvider;
+import org.primefaces.extensions.selenium.spi.GuardBackend;
+
+/**
+ * Waits for AJAX completion with a single {@link JavascriptExecutor#executeAsyncScript(String, Object...)} round trip. The browser checks the readiness
+ * conditions itself and invokes the callback as soon as the page is idle or the timeout elapsed. Falls back to polling if the script is aborted, e.g. because
+ * the document was unloaded.
+ */
+public class AsyncScriptGuardBackend implements GuardBackend {
+
+    private static final int SCRIPT_TIMEOUT_MARGIN = 5000;
+
+    private static final String AJAX_COMPLETED_ASYNC_SCRIPT = "var timeout = arguments[0], callback = arguments[arguments.length - 1], start = Date.now();"
+                + "new Promise(function(resolve) {"
+                + "    var check = function() {"
+                + "        var completed = false;"
+                + "        try { completed = " + ScriptGuardBackend.AJAX_COMPLETED_SCRIPT + "; } catch (e) { }"
+                + "        if (completed) { resolve(true); }"
+                + "        else if (Date.now() - start > timeout) { resolve(false); }"
+                + "        else { window.setTimeout(check, 10); }"
+                + "    };"
+                + "    check();"
+                + "}).then(callback);";
+
+    private final ScriptGuardBackend fallback = new ScriptGuardBackend();
+
+    @Override
+    public boolean supports(WebDriver driver) {
+        return driver instanceof JavascriptExecutor;
+    }
+
+    @Override
+    public void configure(WebDriver driver) {
+        // the backend handles the AJAX timeout itself, the script timeout is just a safety net
+        long timeout = ConfigProvider.getInstance().getAjaxTimeoutMillis() + SCRIPT_TIMEOUT_MARGIN;
+        driver.manage().timeouts().setScriptTimeout(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void waitUntilAjaxCompletes(WebDriver driver, long timeoutInMillis) {
+        Boolean completed;
+        try {
+            completed = (Boolean) ((JavascriptExecutor) driver).executeAsyncScript(AJAX_COMPLETED_ASYNC_SCRIPT, timeoutInMillis);
+        }
+        catch (ScriptTimeoutException e) {
+            throw new TimeoutException("Async script timed out while waiting for AJAX complete!", e);
+        }
+        catch (TimeoutException e) {
+            throw e;
+        }
+        catch (WebDriverException e) {
+            // e.g. the document was unloaded while the async script was running
+            fallback.waitUntilAjaxCompletes(driver, timeoutInMillis);
+            return;
+        }
+
+        if (!Boolean.TRUE.equals(completed)) {
+            throw new TimeoutException("Expected AJAX to complete within " + timeoutInMillis + "ms");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.guard;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.primefaces.extensions.selenium.internal.wait.PollingWebDriverWait;
+import org.primefaces.extensions.selenium.spi.GuardBackend;
+
+/**
+ * Polls the readiness script until AJAX has completed. Supports every browser.
+ */
+public class ScriptGuardBackend implements GuardBackend {
+
+    static final String AJAX_COMPLETED_SCRIPT = "document.readyState === 'complete'"
+                + " && (!window.jQuery || jQuery.active == 0)"
+                + " && (!window.PrimeFaces || (PrimeFaces.ajax.Queue.isEmpty() && PrimeFaces.animationActive === false))"
+                + " && (!window.pfselenium || (pfselenium.xhr === null && pfselenium.activeRequests === 0 && pfselenium.navigating === false))";
+
+    @Override
+    public boolean supports(WebDriver driver) {
+        return driver instanceof JavascriptExecutor;
+    }
+
+    @Override
+    public void waitUntilAjaxCompletes(WebDriver driver, long timeoutInMillis) {
+        WebDriverWait wait = new PollingWebDriverWait(driver, timeoutInMillis);
+        wait.until(d -> {
+            return (Boolean) ((JavascriptExecutor) driver).executeScript("return " + AJAX_COMPLETED_SCRIPT + ";");
+        });
+    }
+}
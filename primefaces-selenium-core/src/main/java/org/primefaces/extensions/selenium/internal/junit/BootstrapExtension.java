@@ -21,36 +21,112 @@
  */
 package org.primefaces.extensions.selenium.internal.junit;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.primefaces.extensions.selenium.internal.ConfigProvider;
+import org.primefaces.extensions.selenium.internal.proxy.ProxyUtils;
+import org.primefaces.extensions.selenium.spi.PrimePageFragmentFactory;
 import org.primefaces.extensions.selenium.spi.PrimeSeleniumAdapter;
+import org.primefaces.extensions.selenium.spi.WebDriverProvider;
 
 public class BootstrapExtension implements BeforeAllCallback, ExtensionContext.Store.CloseableResource {
 
-    private static final Object SYNCHRONIZER = new Object();
-
-    private static boolean started = false;
-
     @Override
     public void beforeAll(ExtensionContext context) throws Exception {
-        synchronized (SYNCHRONIZER) {
-            if (!started) {
-                PrimeSeleniumAdapter adapter = ConfigProvider.getInstance().getAdapter();
-                adapter.startup();
+        // The root store creates the value only once, even if test classes are started in parallel. The value is closed when the root test context is
+        // shut down.
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                    .getOrComputeIfAbsent(BootstrapExtension.class.getName(), key -> startup(), BootstrapExtension.class);
+    }
 
-                // The following line registers a callback hook when the root test context is shut down
-                context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).put(BootstrapExtension.class.getName(), this);
+    private BootstrapExtension startup() {
+        prewarmFragments();
 
-                started = true;
-            }
+        PrimeSeleniumAdapter adapter = ConfigProvider.getInstance().getAdapter();
+        int shards = ConfigProvider.getInstance().getShards();
+
+        // start the application servers of all shards at the same time
+        List<CompletableFuture<Void>> startups = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            int shard = i;
+            CompletableFuture<Void> startup = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    adapter.startup(shard);
+                    startup.complete(null);
+                }
+                catch (Throwable e) {
+                    startup.completeExceptionally(e);
+                }
+            }, "primefaces-selenium-startup-" + shard);
+            thread.setDaemon(true);
+            thread.start();
+            startups.add(startup);
+        }
+
+        try {
+            CompletableFuture.allOf(startups.toArray(new CompletableFuture[0])).join();
         }
+        catch (CompletionException e) {
+            throw new RuntimeException("Could not start the PrimeSeleniumAdapter!", e.getCause());
+        }
+
+        return this;
+    }
+
+    /**
+     * Generates the fragment proxy types of the configured packages in the background, while the adapter is starting up.
+     */
+    private void prewarmFragments() {
+        List<String> packages = ConfigProvider.getInstance().getPrewarmPackages();
+        if (packages.isEmpty()) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            ClassLoader classLoader = BootstrapExtension.class.getClassLoader();
+            for (String packageName : packages) {
+                try {
+                    PrimePageFragmentFactory.prewarm(ProxyUtils.findClasses(classLoader, packageName));
+                }
+                catch (IOException e) {
+                    System.err.println("Could not prewarm fragments of package " + packageName + ": " + e.getMessage());
+                }
+            }
+        }, "primefaces-selenium-prewarm");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     @Override
     public void close() throws Exception {
+        WebDriverProvider.shutdown();
+
         PrimeSeleniumAdapter adapter = ConfigProvider.getInstance().getAdapter();
-        adapter.shutdown();
+        Exception failure = null;
+        for (int shard = 0; shard < ConfigProvider.getInstance().getShards(); shard++) {
+            try {
+                adapter.shutdown(shard);
+            }
+            catch (Exception e) {
+                // stop the other shards anyway
+                if (failure == null) {
+                    failure = e;
+                }
+                else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
     }
 
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.junit;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.primefaces.extensions.selenium.internal.ConfigProvider;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics;
+
+/**
+ * Aggregates the {@link Metrics} per test class and method and writes the report when the root test context is shut down.
+ */
+public class MetricsExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws Exception {
+        if (!Metrics.isEnabled()) {
+            return;
+        }
+
+        // The following line registers a callback hook when the root test context is shut down
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).getOrComputeIfAbsent(MetricsExtension.class.getName(),
+                    key -> (ExtensionContext.Store.CloseableResource) () -> Metrics.writeReport(ConfigProvider.getInstance().getMetricsReport()));
+
+        Metrics.setCurrentTest(context.getRequiredTestClass().getName());
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws Exception {
+        Metrics.setCurrentTest(context.getRequiredTestClass().getName() + "#" + context.getRequiredTestMethod().getName());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) throws Exception {
+        Metrics.setCurrentTest(context.getRequiredTestClass().getName());
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        Metrics.setCurrentTest(null);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.junit;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.openqa.selenium.WebDriver;
+import org.primefaces.extensions.selenium.RestoreSession;
+import org.primefaces.extensions.selenium.SessionSnapshot;
+import org.primefaces.extensions.selenium.internal.Shards;
+import org.primefaces.extensions.selenium.spi.SessionSetup;
+import org.primefaces.extensions.selenium.spi.WebDriverProvider;
+
+/**
+ * Runs the {@link SessionSetup} of {@link RestoreSession} once per run and restores the captured {@link SessionSnapshot} into the drivers of all other test
+ * classes. Must be registered after the {@link WebDriverExtension}.
+ */
+public class SessionExtension implements BeforeAllCallback {
+
+    // per setup and shard, as each shard has its own application server
+    private static final Map<String, SessionSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws Exception {
+        Optional<RestoreSession> restoreSession = context.getTestClass().flatMap(c -> AnnotationSupport.findAnnotation(c, RestoreSession.class));
+        if (!restoreSession.isPresent()) {
+            return;
+        }
+
+        Class<? extends SessionSetup> setupClass = restoreSession.get().value();
+        String key = getKey(setupClass, Shards.current());
+        WebDriver driver = WebDriverProvider.get();
+
+        SessionSnapshot snapshot = SNAPSHOTS.get(key);
+        if (snapshot == null) {
+            // parallel test classes wait for the first one instead of running the setup themselves
+            synchronized (LOCKS.computeIfAbsent(key, k -> new Object())) {
+                snapshot = SNAPSHOTS.get(key);
+                if (snapshot == null) {
+                    setupClass.newInstance().setup(driver);
+                    SNAPSHOTS.put(key, SessionSnapshot.capture(driver));
+                    // the driver already holds the session
+                    return;
+                }
+            }
+        }
+
+        snapshot.restore(driver);
+    }
+
+    /**
+     * Forgets the captured session of a setup, e.g. if it has expired, so the setup runs again for the next test class.
+     *
+     * @param setupClass the {@link SessionSetup} class
+     */
+    public static void invalidate(Class<? extends SessionSetup> setupClass) {
+        SNAPSHOTS.keySet().removeIf(key -> key.startsWith(setupClass.getName() + "#"));
+    }
+
+    private static String getKey(Class<? extends SessionSetup> setupClass, int shard) {
+        return setupClass.getName() + "#" + shard;
+    }
+}
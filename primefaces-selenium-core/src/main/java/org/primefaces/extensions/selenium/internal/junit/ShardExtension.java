@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.junit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstancePostProcessor;
+import org.primefaces.extensions.selenium.internal.ConfigProvider;
+import org.primefaces.extensions.selenium.internal.Shards;
+
+/**
+ * Binds the shard of the test class to the threads executing it and measures the duration of the class for the next shard assignment. Must be registered
+ * before the {@link WebDriverExtension}, as the driver is created for the shard.
+ */
+public class ShardExtension implements TestInstancePostProcessor, BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ShardExtension.class);
+
+    private static final String SHARD = "shard";
+    private static final String PREVIOUS_SHARD = "previousShard";
+    private static final String START = "start";
+
+    @Override
+    public void postProcessTestInstance(Object testInstance, ExtensionContext context) throws Exception {
+        // with Lifecycle.PER_CLASS the instance is created before beforeAll and the page injection may already need the driver
+        bind(context);
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws Exception {
+        bind(context);
+    }
+
+    private void bind(ExtensionContext context) {
+        Integer shard = context.getStore(NAMESPACE).get(SHARD, Integer.class);
+        if (shard != null) {
+            Shards.setCurrent(shard);
+            return;
+        }
+
+        if (ConfigProvider.getInstance().getShardDurations() != null) {
+            // The following line registers a callback hook when the root test context is shut down
+            context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).getOrComputeIfAbsent(ShardExtension.class.getName(),
+                        key -> (ExtensionContext.Store.CloseableResource) Shards::writeDurations);
+        }
+
+        shard = Shards.assign(context.getRequiredTestClass().getName());
+        context.getStore(NAMESPACE).put(SHARD, shard);
+        context.getStore(NAMESPACE).put(START, System.nanoTime());
+        Shards.setCurrent(shard);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws Exception {
+        Integer shard = context.getStore(NAMESPACE).get(SHARD, Integer.class);
+        if (shard != null && shard != Shards.current()) {
+            context.getStore(NAMESPACE).put(PREVIOUS_SHARD, new AtomicReference<>(Shards.current()));
+            Shards.setCurrent(shard);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterEach(ExtensionContext context) throws Exception {
+        AtomicReference<Integer> previous = context.getStore(NAMESPACE).remove(PREVIOUS_SHARD, AtomicReference.class);
+        if (previous != null) {
+            Shards.setCurrent(previous.get());
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        Long start = context.getStore(NAMESPACE).remove(START, Long.class);
+        if (start != null) {
+            Shards.record(context.getRequiredTestClass().getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        context.getStore(NAMESPACE).remove(SHARD);
+        Shards.setCurrent(null);
+    }
+}
@@ -21,25 +21,67 @@
  */
 package org.primefaces.extensions.selenium.internal.junit;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.openqa.selenium.WebDriver;
 import org.primefaces.extensions.selenium.spi.WebDriverProvider;
 
-public class WebDriverExtension implements BeforeAllCallback, AfterAllCallback {
+/**
+ * Provides a driver per test class. The driver is kept in the store of the class context and bound to the thread executing a test, so it also works if JUnit
+ * runs the test classes in parallel and executes a test on another thread than the one which started the class.
+ */
+public class WebDriverExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(WebDriverExtension.class);
+
+    private static final String DRIVER = "driver";
+    private static final String PREVIOUS_DRIVER = "previousDriver";
 
     @Override
     public void beforeAll(ExtensionContext context) throws Exception {
-        WebDriverProvider.get(true);
+        WebDriver driver = WebDriverProvider.get(true);
+        context.getStore(NAMESPACE).put(DRIVER, driver);
+
+        // overlap the browser startup for the next test class with this one
+        WebDriverProvider.prewarm();
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws Exception {
+        WebDriver driver = context.getStore(NAMESPACE).get(DRIVER, WebDriver.class);
+        WebDriver current = WebDriverProvider.get();
+        if (driver != null && driver != current) {
+            context.getStore(NAMESPACE).put(PREVIOUS_DRIVER, new AtomicReference<>(current));
+            WebDriverProvider.set(driver);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterEach(ExtensionContext context) throws Exception {
+        AtomicReference<WebDriver> previous = context.getStore(NAMESPACE).remove(PREVIOUS_DRIVER, AtomicReference.class);
+        if (previous != null) {
+            WebDriverProvider.set(previous.get());
+        }
     }
 
     @Override
     public void afterAll(ExtensionContext context) throws Exception {
-        WebDriver webDriver = WebDriverProvider.get();
-        if (webDriver != null) {
-            webDriver.quit();
+        WebDriver driver = context.getStore(NAMESPACE).remove(DRIVER, WebDriver.class);
+        WebDriver current = WebDriverProvider.get();
+        if (driver == null || driver == current) {
+            WebDriverProvider.release();
+            return;
         }
-        WebDriverProvider.set(null);
+
+        // executed on another thread than the class was started on, don't release the driver bound to this thread
+        WebDriverProvider.set(driver);
+        WebDriverProvider.release();
+        WebDriverProvider.set(current);
     }
 }
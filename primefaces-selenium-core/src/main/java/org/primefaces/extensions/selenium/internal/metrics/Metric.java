@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.metrics;
+
+/**
+ * The kinds of interactions which are measured by {@link Metrics}.
+ */
+public enum Metric {
+
+    /** Guard.ajax including the guarded action */
+    AJAX_GUARD,
+
+    /** Guard.http including the guarded action */
+    HTTP_GUARD,
+
+    /** Checking and installing the onload scripts */
+    ONLOAD_SCRIPTS,
+
+    /** PrimeSelenium.waitGui */
+    GUI_WAIT,
+
+    /** PrimeSelenium.waitDocumentLoad */
+    DOCUMENT_LOAD,
+
+    /** PrimeSelenium.wait - plain sleeps */
+    SLEEP,
+
+    /** Delays of browser quirks, see BrowserProfile */
+    QUIRK_DELAY
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.primefaces.extensions.selenium.internal.ConfigProvider;
+
+/**
+ * Collects the number of calls, WebDriver round trips, time spent and timeouts of guards and waits, aggregated per test. Metrics are only collected if the
+ * <code>metricsReport</code> property is set in the <code>config.properties</code>.
+ * <p>
+ * Measurements can be nested, round trips are always counted for the innermost one - so the time of nested measurements (like the document load wait of the
+ * onload scripts) is included in the outer one, while round trips are not. A round trip is a command sent through the driver of
+ * {@link org.primefaces.extensions.selenium.spi.WebDriverProvider}, like a script, a find or an element command; the commands of
+ * <code>manage()</code> and of alerts are not counted.
+ * </p>
+ */
+public final class Metrics {
+
+    private static final String NO_TEST = "(none)";
+
+    private static final ThreadLocal<String> CURRENT_TEST = ThreadLocal.withInitial(() -> NO_TEST);
+
+    private static final ThreadLocal<Deque<Measurement>> MEASUREMENTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final ConcurrentMap<String, Map<Metric, MetricStats>> STATS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigProvider.getInstance().getMetricsReport() != null;
+    }
+
+    /**
+     * Sets the test the following measurements of the current thread are aggregated for.
+     *
+     * @param test the test like "MyTest#myTestMethod" or null if no test is running
+     */
+    public static void setCurrentTest(String test) {
+        CURRENT_TEST.set(test == null ? NO_TEST : test);
+    }
+
+    /**
+     * Starts measuring a call. The returned {@link Measurement} must be closed when the call is done.
+     *
+     * @param metric the {@link Metric}
+     * @return the {@link Measurement}
+     */
+    public static Measurement start(Metric metric) {
+        if (!isEnabled()) {
+            return Measurement.NOOP;
+        }
+
+        Measurement measurement = new Measurement(getStats(CURRENT_TEST.get(), metric));
+        MEASUREMENTS.get().push(measurement);
+        return measurement;
+    }
+
+    /**
+     * Counts a WebDriver round trip for the innermost running {@link Measurement} of the current thread. Called by the driver for every command it sends
+     * to the browser, so it must not be called anywhere else.
+     */
+    public static void roundTrip() {
+        Measurement measurement = MEASUREMENTS.get().peek();
+        if (measurement != null) {
+            measurement.roundTrips++;
+        }
+    }
+
+    public static Map<String, Map<Metric, MetricStats>> getStats() {
+        return STATS;
+    }
+
+    /**
+     * Writes all collected metrics, sorted by time spent per test. The format depends on the file extension: CSV for <code>.csv</code> files, JSON otherwise.
+     *
+     * @param file the report file
+     * @throws IOException if the report could not be written
+     */
+    public static void writeReport(String file) throws IOException {
+        List<Map.Entry<String, Map<Metric, MetricStats>>> tests = new ArrayList<>(STATS.entrySet());
+        tests.sort((t1, t2) -> Long.compare(getMillis(t2.getValue()), getMillis(t1.getValue())));
+
+        String report;
+        if (file.toLowerCase().endsWith(".csv")) {
+            StringBuilder csv = new StringBuilder("test;metric;calls;roundTrips;millis;maxMillis;timeouts\n");
+            for (Map.Entry<String, Map<Metric, MetricStats>> test : tests) {
+                for (Map.Entry<Metric, MetricStats> metric : test.getValue().entrySet()) {
+                    MetricStats stats = metric.getValue();
+                    csv.append(test.getKey()).append(';').append(metric.getKey()).append(';')
+                                .append(stats.getCalls()).append(';').append(stats.getRoundTrips()).append(';')
+                                .append(stats.getMillis()).append(';').append(stats.getMaxMillis()).append(';')
+                                .append(stats.getTimeouts()).append('\n');
+                }
+            }
+            report = csv.toString();
+        }
+        else {
+            JSONArray json = new JSONArray();
+            for (Map.Entry<String, Map<Metric, MetricStats>> test : tests) {
+                JSONObject metrics = new JSONObject();
+                for (Map.Entry<Metric, MetricStats> metric : test.getValue().entrySet()) {
+                    MetricStats stats = metric.getValue();
+                    metrics.put(metric.getKey().name(), new JSONObject()
+                                .put("calls", stats.getCalls())
+                                .put("roundTrips", stats.getRoundTrips())
+                                .put("millis", stats.getMillis())
+                                .put("maxMillis", stats.getMaxMillis())
+                                .put("timeouts", stats.getTimeouts()));
+                }
+                json.put(new JSONObject()
+                            .put("test", test.getKey())
+                            .put("millis", getMillis(test.getValue()))
+                            .put("metrics", metrics));
+            }
+            report = json.toString(2);
+        }
+
+        Files.write(Paths.get(file), report.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long getMillis(Map<Metric, MetricStats> metrics) {
+        return metrics.values().stream().mapToLong(MetricStats::getMillis).sum();
+    }
+
+    private static MetricStats getStats(String test, Metric metric) {
+        Map<Metric, MetricStats> metrics = STATS.computeIfAbsent(test, t -> new EnumMap<>(Metric.class));
+        synchronized (metrics) {
+            return metrics.computeIfAbsent(metric, m -> new MetricStats());
+        }
+    }
+
+    /**
+     * A running measurement of a single call.
+     */
+    public static final class Measurement implements AutoCloseable {
+
+        private static final Measurement NOOP = new Measurement(null);
+
+        private final MetricStats stats;
+        private final long start;
+        private long roundTrips;
+
+        Measurement(MetricStats stats) {
+            this.stats = stats;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Counts a timeout of the measured call.
+         */
+        public void timeout() {
+            if (stats != null) {
+                stats.timeout();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (stats != null) {
+                MEASUREMENTS.get().remove(this);
+                stats.record(roundTrips, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.proxy;
+
+import java.lang.reflect.Field;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.How;
+
+/**
+ * Compiles {@link FindBy} and {@link FindBys} annotations into CSS selectors, so nested locators can be flattened into one compound selector evaluated from
+ * the document root. Returns <code>null</code> for everything which can't be expressed as a single CSS selector (XPath, link texts, selector groups,
+ * {@link org.openqa.selenium.support.FindAll}), those are located by chained lookups.
+ */
+public final class CssSelectorCompiler {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_-]*");
+
+    private CssSelectorCompiler() {
+    }
+
+    public static String compile(Field field) {
+        FindBys findBys = field.getAnnotation(FindBys.class);
+        if (findBys != null) {
+            StringBuilder selector = new StringBuilder();
+            for (FindBy findBy : findBys.value()) {
+                String part = compile(findBy);
+                // a chained lookup matches the next selector against the whole document, so only compound selectors keep their meaning when joined
+                if (part == null || selector.length() > 0 && !isCompound(part)) {
+                    return null;
+                }
+                if (selector.length() > 0) {
+                    selector.append(' ');
+                }
+                selector.append(part);
+            }
+            return selector.length() == 0 ? null : selector.toString();
+        }
+
+        FindBy findBy = field.getAnnotation(FindBy.class);
+        if (findBy != null) {
+            return compile(findBy);
+        }
+
+        return null;
+    }
+
+    /**
+     * Does the annotation of the field identify at most one element, so a selector of a child can be appended to its selector?
+     *
+     * @param field the field
+     * @return true if the field is located by id
+     */
+    public static boolean isUnique(Field field) {
+        FindBys findBys = field.getAnnotation(FindBys.class);
+        if (findBys != null) {
+            return findBys.value().length > 0 && isId(findBys.value()[findBys.value().length - 1]);
+        }
+
+        FindBy findBy = field.getAnnotation(FindBy.class);
+        return findBy != null && isId(findBy);
+    }
+
+    /**
+     * Is the selector a single compound selector, without combinators? Only then matching it within a parent is the same as appending it to the selector of the
+     * parent: a scoped lookup matches a selector like <code>form .x</code> against the whole document, so the <code>form</code> may also be an ancestor of the
+     * parent.
+     *
+     * @param css the CSS selector
+     * @return true if the selector contains no combinator and no selector group outside of attribute selectors, strings and functional pseudo classes
+     */
+    public static boolean isCompound(String css) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < css.length(); i++) {
+            char c = css.charAt(i);
+            if (c == '\\') {
+                i++;
+            }
+            else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            }
+            else if (c == '"' || c == '\'') {
+                quote = c;
+            }
+            else if (c == '[' || c == '(') {
+                depth++;
+            }
+            else if (c == ']' || c == ')') {
+                depth--;
+            }
+            else if (depth == 0 && (Character.isWhitespace(c) || c == '>' || c == '+' || c == '~' || c == ',')) {
+                return false;
+            }
+        }
+        return !css.isEmpty();
+    }
+
+    public static String id(String id) {
+        return "[id=\"" + id.replace("\\", "\\\\").replace("\"", "\\\"") + "\"]";
+    }
+
+    private static boolean isId(FindBy findBy) {
+        return findBy.how() == How.ID || findBy.how() == How.UNSET && !findBy.id().isEmpty();
+    }
+
+    private static String compile(FindBy findBy) {
+        if (findBy.how() != How.UNSET) {
+            return compile(findBy.how(), findBy.using());
+        }
+        if (!findBy.id().isEmpty()) {
+            return compile(How.ID, findBy.id());
+        }
+        if (!findBy.name().isEmpty()) {
+            return compile(How.NAME, findBy.name());
+        }
+        if (!findBy.className().isEmpty()) {
+            return compile(How.CLASS_NAME, findBy.className());
+        }
+        if (!findBy.css().isEmpty()) {
+            return compile(How.CSS, findBy.css());
+        }
+        if (!findBy.tagName().isEmpty()) {
+            return compile(How.TAG_NAME, findBy.tagName());
+        }
+        return null;
+    }
+
+    private static String compile(How how, String using) {
+        switch (how) {
+            case ID:
+                return id(using);
+            case NAME:
+                return "[name=\"" + using.replace("\\", "\\\\").replace("\"", "\\\"") + "\"]";
+            case CLASS_NAME:
+                return IDENTIFIER.matcher(using).matches() ? "." + using : null;
+            case TAG_NAME:
+                return IDENTIFIER.matcher(using).matches() ? using : null;
+            case CSS:
+                // selector groups can't be prefixed, selectors starting with a combinator can't stand alone
+                String css = using.trim();
+                return css.isEmpty() || css.contains(",") || ">+~".indexOf(css.charAt(0)) >= 0 ? null : css;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.proxy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Generation counter for the {@link org.openqa.selenium.WebElement}s of a driver cached by {@link ElementLocatorInterceptor}. A cached element is only
+ * reused while the generation didn't change, so everything which may change the DOM (guards, scripts, interactions, navigations, a new driver) has to call
+ * {@link #invalidate()}. Everything which loads a new document has to call {@link #navigated()}, which also invalidates values like client ids that are
+ * stable during the life of a document.
+ * <p>
+ * The counters are kept per driver, so test classes running in parallel don't invalidate the elements of each other.
+ * </p>
+ */
+public final class ElementCache {
+
+    private static final Map<WebDriver, ElementCache> CACHES = new ConcurrentHashMap<>();
+
+    // for elements created without a driver
+    private static final ElementCache NONE = new ElementCache();
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong navigation = new AtomicLong();
+
+    private ElementCache() {
+    }
+
+    /**
+     * Gets the cache of a driver. Callers should keep the returned instance instead of looking it up again for every element call.
+     *
+     * @param driver the {@link WebDriver}
+     * @return the {@link ElementCache} of the driver
+     */
+    public static ElementCache of(WebDriver driver) {
+        return driver == null ? NONE : CACHES.computeIfAbsent(driver, d -> new ElementCache());
+    }
+
+    /**
+     * Drops the cache of a driver which has been quit.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public static void forget(WebDriver driver) {
+        if (driver != null) {
+            CACHES.remove(driver);
+        }
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public long getNavigation() {
+        return navigation.get();
+    }
+
+    public void navigated() {
+        navigation.incrementAndGet();
+        invalidate();
+    }
+}
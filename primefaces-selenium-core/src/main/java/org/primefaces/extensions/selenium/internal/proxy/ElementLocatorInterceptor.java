@@ -25,31 +25,84 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.primefaces.extensions.selenium.internal.ConfigProvider;
 
 import net.bytebuddy.implementation.bind.annotation.AllArguments;
 import net.bytebuddy.implementation.bind.annotation.Origin;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 
+/**
+ * Locates the element of a proxied {@link WebElement} and delegates to it. The located element is cached until the {@link ElementCache} generation changes
+ * or the element turned stale, so consecutive calls on the same proxy don't need a find round trip each.
+ */
 public class ElementLocatorInterceptor {
 
     private final ElementLocator locator;
+    private final ElementCache elementCache;
+    private final boolean cacheEnabled;
+
+    private WebElement cached;
+    private long cachedGeneration;
 
-    public ElementLocatorInterceptor(ElementLocator locator) {
+    public ElementLocatorInterceptor(ElementLocator locator, WebDriver driver) {
         this.locator = locator;
+        this.elementCache = ElementCache.of(driver);
+        this.cacheEnabled = ConfigProvider.getInstance().isElementCache();
     }
 
     @RuntimeType
     public Object intercept(@Origin Method method, @AllArguments Object[] args) throws Throwable {
+        // the wrapped element leaves our control (e.g. into Actions), so it can't recover from staleness and is always located freshly
+        boolean fromCache = cacheEnabled && cached != null && cachedGeneration == elementCache.getGeneration()
+                    && !method.getName().equals("getWrappedElement");
+        WebElement located = fromCache ? cached : locate();
+
+        try {
+            return invoke(located, method, args);
+        }
+        catch (StaleElementReferenceException e) {
+            if (locator instanceof ElementsLocatorInterceptor.IndexedElementLocator) {
+                // the element comes from a list snapshot, which has to be located again
+                return invoke(store(((ElementsLocatorInterceptor.IndexedElementLocator) locator).refresh(), elementCache.getGeneration()), method, args);
+            }
+            if (!fromCache) {
+                throw e;
+            }
+
+            // the DOM changed without a guard, locate it again and retry once
+            return invoke(locate(), method, args);
+        }
+    }
+
+    private WebElement locate() {
+        long generation = elementCache.getGeneration();
+
         WebElement located;
         try {
             located = locator.findElement();
         }
         catch (NoSuchElementException e) {
+            cached = null;
             throw e;
         }
 
+        return store(located, generation);
+    }
+
+    private WebElement store(WebElement located, long generation) {
+        if (cacheEnabled) {
+            cached = located;
+            cachedGeneration = generation;
+        }
+
+        return located;
+    }
+
+    private Object invoke(WebElement located, Method method, Object[] args) throws Throwable {
         if (method.getName().equals("getWrappedElement")) {
             return located;
         }
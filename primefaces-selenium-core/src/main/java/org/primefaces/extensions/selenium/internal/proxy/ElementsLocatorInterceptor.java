@@ -27,59 +27,119 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
 import org.primefaces.extensions.selenium.spi.PrimePageFragmentFactory;
 
+/**
+ * Backs a proxied {@link List} of elements with a snapshot, which is located once and reused until the {@link ElementCache} generation changes. Fragments of
+ * the list resolve their element from the snapshot and only locate the list again if their element went stale. The fragments of a snapshot are only created
+ * when the list itself is used, resolving an element of an existing fragment doesn't create new ones. The list can be changed, e.g. sorted, the changes last
+ * until the snapshot is located again.
+ */
 public class ElementsLocatorInterceptor implements InvocationHandler {
 
     private final ElementLocator locator;
     private final Class<? extends WebElement> genericClass;
+    private final ElementCache elementCache;
+
+    private Snapshot snapshot;
 
-    public ElementsLocatorInterceptor(ElementLocator locator, Class<? extends WebElement> genericClass) {
+    public ElementsLocatorInterceptor(ElementLocator locator, Class<? extends WebElement> genericClass, WebDriver driver) {
         this.locator = locator;
         this.genericClass = genericClass;
+        this.elementCache = ElementCache.of(driver);
     }
 
     @Override
     public Object invoke(Object object, Method method, Object[] objects) throws Throwable {
-        List<WebElement> elements = locator.findElements();
+        try {
+            return method.invoke(getSnapshot().getValues(), objects);
+        }
+        catch (InvocationTargetException e) {
+            // Unwrap the underlying exception
+            throw e.getCause();
+        }
+    }
 
-        if (genericClass != WebElement.class) {
-            ArrayList<WebElement> fragments = new ArrayList<>();
+    Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null || current.generation != elementCache.getGeneration()) {
+            current = locate();
+        }
+        return current;
+    }
 
-            for (int i = 0; i < elements.size(); i++) {
-                WebElement element = elements.get(i);
-                WebElement fragment = PrimePageFragmentFactory.create(genericClass, element, new IndexedElementLocator(locator, i));
+    private Snapshot locate() {
+        long generation = elementCache.getGeneration();
+        Snapshot located = new Snapshot(generation, locator.findElements());
+        snapshot = located;
+        return located;
+    }
 
-                fragments.add(fragment);
-            }
+    final class Snapshot {
 
-            elements = fragments;
-        }
+        private final long generation;
+        private final List<WebElement> elements;
+        private List<WebElement> values;
 
-        try {
-            return method.invoke(elements, objects);
+        Snapshot(long generation, List<WebElement> elements) {
+            this.generation = generation;
+            this.elements = elements;
         }
-        catch (InvocationTargetException e) {
-            // Unwrap the underlying exception
-            throw e.getCause();
+
+        List<WebElement> getValues() {
+            if (values == null) {
+                // a mutable copy like the lists of the PageFactory, changing it must not shift the elements the fragments resolve by index
+                List<WebElement> result;
+                if (genericClass == WebElement.class) {
+                    result = new ArrayList<>(elements);
+                }
+                else {
+                    result = new ArrayList<>(elements.size());
+
+                    for (int i = 0; i < elements.size(); i++) {
+                        IndexedElementLocator indexedLocator = new IndexedElementLocator(ElementsLocatorInterceptor.this, i);
+                        result.add(PrimePageFragmentFactory.create(genericClass, elements.get(i), indexedLocator));
+                    }
+                }
+                values = result;
+            }
+            return values;
         }
     }
 
     static class IndexedElementLocator implements ElementLocator {
 
-        private final ElementLocator locator;
+        private final ElementsLocatorInterceptor interceptor;
         private final int i;
 
-        public IndexedElementLocator(ElementLocator locator, int i) {
-            this.locator = locator;
+        public IndexedElementLocator(ElementsLocatorInterceptor interceptor, int i) {
+            this.interceptor = interceptor;
             this.i = i;
         }
 
         @Override
         public WebElement findElement() {
-            return locator.findElements().get(i);
+            return get(interceptor.getSnapshot());
+        }
+
+        /**
+         * Locates the list again, because the element of the current snapshot went stale.
+         *
+         * @return the element at the index of the new snapshot
+         */
+        WebElement refresh() {
+            return get(interceptor.locate());
+        }
+
+        private WebElement get(Snapshot snapshot) {
+            if (snapshot.elements.size() <= i) {
+                throw new NoSuchElementException("Cannot locate element at index " + i + ", the list only contains " + snapshot.elements.size());
+            }
+            return snapshot.elements.get(i);
         }
 
         @Override
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.primefaces.extensions.selenium.findby.FindByParentPartialId;
+
+/**
+ * The fields of a page or fragment class which have to be injected, including their locators and setters. A plan is computed once per class, so creating a
+ * page or fragment only has to replay it.
+ */
+public final class InjectionPlan {
+
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<InjectionPlan>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return new InjectionPlan(type);
+        }
+    };
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final List<InjectionPoint> injectionPoints;
+
+    private InjectionPlan(Class<?> clazz) {
+        List<InjectionPoint> points = new ArrayList<>();
+
+        Class<?> current = clazz;
+        while (current != null && current != Object.class) {
+            for (Field field : current.getDeclaredFields()) {
+                FindByParentPartialId findByParentPartialId = field.getAnnotation(FindByParentPartialId.class);
+                if (findByParentPartialId != null) {
+                    points.add(new InjectionPoint(field, null, findByParentPartialId));
+                }
+                else if (field.getAnnotation(FindBy.class) != null
+                            || field.getAnnotation(FindAll.class) != null
+                            || field.getAnnotation(FindBys.class) != null) {
+                    points.add(new InjectionPoint(field, LocatorDescriptor.of(field), null));
+                }
+            }
+
+            current = current.getSuperclass();
+        }
+
+        this.injectionPoints = Collections.unmodifiableList(points);
+    }
+
+    public static InjectionPlan of(Class<?> clazz) {
+        return PLANS.get(ProxyUtils.getUnproxiedClass(clazz));
+    }
+
+    public List<InjectionPoint> getInjectionPoints() {
+        return injectionPoints;
+    }
+
+    public static final class InjectionPoint {
+
+        private final String name;
+        private final boolean privateField;
+        private final MethodHandle setter;
+        private final LocatorDescriptor locatorDescriptor;
+        private final FindByParentPartialId findByParentPartialId;
+        private final Class<? extends WebElement> elementType;
+        private final Class<? extends WebElement> listElementType;
+
+        @SuppressWarnings("unchecked")
+        InjectionPoint(Field field, LocatorDescriptor locatorDescriptor, FindByParentPartialId findByParentPartialId) {
+            this.name = field.getDeclaringClass().getName() + "#" + field.getName();
+            this.privateField = Modifier.isPrivate(field.getModifiers());
+            this.locatorDescriptor = locatorDescriptor;
+            this.findByParentPartialId = findByParentPartialId;
+            this.elementType = WebElement.class.isAssignableFrom(field.getType()) ? (Class<? extends WebElement>) field.getType() : null;
+            this.listElementType = List.class.isAssignableFrom(field.getType()) ? extractGenericListType(field) : null;
+
+            try {
+                field.setAccessible(true);
+                this.setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            }
+            catch (IllegalAccessException e) {
+                throw new RuntimeException("Can not access field " + name + "!", e);
+            }
+        }
+
+        /**
+         * @return true if the field can only be accessed by its own class
+         */
+        public boolean isPrivateField() {
+            return privateField;
+        }
+
+        public LocatorDescriptor getLocatorDescriptor() {
+            return locatorDescriptor;
+        }
+
+        public FindByParentPartialId getFindByParentPartialId() {
+            return findByParentPartialId;
+        }
+
+        /**
+         * @return the type of the field if it is a {@link WebElement}, otherwise <code>null</code>
+         */
+        public Class<? extends WebElement> getElementType() {
+            return elementType;
+        }
+
+        /**
+         * @return the generic type if the field is a {@link List} of {@link WebElement}s, otherwise <code>null</code>
+         */
+        public Class<? extends WebElement> getListElementType() {
+            return listElementType;
+        }
+
+        public void set(Object instance, Object value) {
+            try {
+                setter.invokeExact(instance, value);
+            }
+            catch (Throwable e) {
+                throw new RuntimeException("Can not set field " + name + " in PageFragment!", e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Class<? extends WebElement> extractGenericListType(Field field) {
+            // Attempt to discover the generic type of the list
+            Type genericType = field.getGenericType();
+            if (!(genericType instanceof ParameterizedType)) {
+                return null;
+            }
+
+            Type listGenericType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (listGenericType instanceof Class && WebElement.class.isAssignableFrom((Class<?>) listGenericType)) {
+                return (Class<? extends WebElement>) listGenericType;
+            }
+
+            return null;
+        }
+    }
+}
@@ -21,31 +21,90 @@
  */
 package org.primefaces.extensions.selenium.internal.proxy;
 
-import java.lang.reflect.Field;
 import java.util.List;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
-import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
 
-public class LazyElementLocator implements ElementLocator {
+/**
+ * Locates the element of a field within its parent. If the parent is unique and can be expressed as CSS selector and the field as compound CSS selector, the
+ * element is located with one selector from the document root instead of locating the parent first.
+ */
+public class LazyElementLocator implements CssPathLocator {
 
-    private final ElementLocatorFactory elf;
-    private final Field field;
+    private final WebDriver driver;
+    private final SearchContext searchContext;
+    private final LocatorDescriptor descriptor;
+    private final ElementLocator parentLocator;
 
-    public LazyElementLocator(ElementLocatorFactory elf, Field field) {
-        this.elf = elf;
-        this.field = field;
+    /**
+     * @param driver the {@link WebDriver}
+     * @param searchContext the parent to search in
+     * @param descriptor the descriptor of the field
+     * @param parentLocator the locator of the parent or <code>null</code> if the parent is the document root
+     */
+    public LazyElementLocator(WebDriver driver, SearchContext searchContext, LocatorDescriptor descriptor, ElementLocator parentLocator) {
+        this.driver = driver;
+        this.searchContext = searchContext;
+        this.descriptor = descriptor;
+        this.parentLocator = parentLocator;
     }
 
     @Override
     public WebElement findElement() {
-        return elf.createLocator(field).findElement();
+        if (isFlattenable()) {
+            return driver.findElement(By.cssSelector(getCssPath()));
+        }
+
+        return searchContext.findElement(descriptor.getBy());
     }
 
     @Override
     public List<WebElement> findElements() {
-        return elf.createLocator(field).findElements();
+        if (isFlattenable()) {
+            return driver.findElements(By.cssSelector(getCssPath()));
+        }
+
+        return searchContext.findElements(descriptor.getBy());
+    }
+
+    /**
+     * There is only a CSS path if the parent is unique, see {@link #getCssPath()}.
+     *
+     * @return true if the element can be located by {@link #getCssPath()} from the document root
+     */
+    private boolean isFlattenable() {
+        return parentLocator != null && getCssPath() != null;
+    }
+
+    /**
+     * The matches of the joined selector are only the matches within the parent if the parent is unique. Otherwise the first match could be the child of
+     * another parent than the first one, where the chained lookup fails.
+     *
+     * @return the CSS selector of the field from the document root or <code>null</code> if it can't be located by one
+     */
+    @Override
+    public String getCssPath() {
+        if (descriptor.getCss() == null) {
+            return null;
+        }
+        if (parentLocator == null) {
+            return searchContext instanceof WebDriver ? descriptor.getCss() : null;
+        }
+        if (!(parentLocator instanceof CssPathLocator) || !((CssPathLocator) parentLocator).isCssPathUnique() || !descriptor.isCompound()) {
+            return null;
+        }
+
+        String parentPath = ((CssPathLocator) parentLocator).getCssPath();
+        return parentPath == null ? null : parentPath + " " + descriptor.getCss();
+    }
+
+    @Override
+    public boolean isCssPathUnique() {
+        return descriptor.isUnique();
     }
 
 }
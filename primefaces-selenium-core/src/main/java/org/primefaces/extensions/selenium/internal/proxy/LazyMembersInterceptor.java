@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.proxy;
+
+import java.util.concurrent.Callable;
+
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.SuperCall;
+
+/**
+ * Injects the members of a fragment proxy on the first call of one of its own methods. Fragments which are only used as plain {@link
+ * org.openqa.selenium.WebElement} or not at all never pay for creating their nested proxies. Only overridable methods can trigger the injection, so fragments
+ * with final or package-private methods or non-private members are injected right away instead.
+ */
+public class LazyMembersInterceptor {
+
+    private Runnable injector;
+
+    public LazyMembersInterceptor(Runnable injector) {
+        this.injector = injector;
+    }
+
+    @RuntimeType
+    public Object intercept(@SuperCall Callable<?> zuper) throws Exception {
+        Runnable current = injector;
+        if (current != null) {
+            // reset first, the injection must only run once even if it calls back into the fragment
+            injector = null;
+            try {
+                current.run();
+            }
+            catch (RuntimeException | Error e) {
+                // the next call has to try again, otherwise the fragment stays without members
+                injector = current;
+                throw e;
+            }
+        }
+
+        return zuper.call();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.proxy;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+/**
+ * The compiled {@link By} and CSS selector of a field annotated with {@link FindBy}, {@link FindAll} or {@link FindBys}. The annotations of a class are only
+ * processed once, the descriptors are shared by all instances of the class.
+ */
+public final class LocatorDescriptor {
+
+    private static final ClassValue<Map<String, LocatorDescriptor>> DESCRIPTORS = new ClassValue<Map<String, LocatorDescriptor>>() {
+        @Override
+        protected Map<String, LocatorDescriptor> computeValue(Class<?> type) {
+            Map<String, LocatorDescriptor> descriptors = new HashMap<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (field.getAnnotation(FindBy.class) != null
+                            || field.getAnnotation(FindAll.class) != null
+                            || field.getAnnotation(FindBys.class) != null) {
+                    descriptors.put(field.getName(), new LocatorDescriptor(new Annotations(field).buildBy(), CssSelectorCompiler.compile(field),
+                                CssSelectorCompiler.isUnique(field)));
+                }
+            }
+            return Collections.unmodifiableMap(descriptors);
+        }
+    };
+
+    private final By by;
+    private final String css;
+    private final boolean unique;
+    private final boolean compound;
+
+    private LocatorDescriptor(By by, String css, boolean unique) {
+        this.by = by;
+        this.css = css;
+        this.unique = unique;
+        this.compound = css != null && CssSelectorCompiler.isCompound(css);
+    }
+
+    public By getBy() {
+        return by;
+    }
+
+    /**
+     * @return the locator as CSS selector or <code>null</code> if it can't be expressed as such
+     */
+    public String getCss() {
+        return css;
+    }
+
+    /**
+     * @return true if the locator identifies at most one element
+     */
+    public boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * @return true if the CSS selector can be appended to the selector of a parent, see {@link CssSelectorCompiler#isCompound(String)}
+     */
+    public boolean isCompound() {
+        return compound;
+    }
+
+    /**
+     * Gets the descriptor of an annotated field.
+     *
+     * @param field the field annotated with {@link FindBy}, {@link FindAll} or {@link FindBys}
+     * @return the descriptor or <code>null</code> if the field is not annotated
+     */
+    public static LocatorDescriptor of(Field field) {
+        return DESCRIPTORS.get(field.getDeclaringClass()).get(field.getName());
+    }
+}
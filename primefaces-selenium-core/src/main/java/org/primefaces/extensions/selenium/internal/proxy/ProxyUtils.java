@@ -21,10 +21,18 @@
  */
 package org.primefaces.extensions.selenium.internal.proxy;
 
-import java.lang.reflect.Field;
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 public class ProxyUtils {
 
@@ -38,18 +46,66 @@ public class ProxyUtils {
         return clazz;
     }
 
-    public static List<Field> collectFields(Object instance) {
-        Class<?> clazz = getUnproxiedClass(instance.getClass());
+    /**
+     * Finds all classes of a package and its sub-packages, both from directories and JAR files on the classpath.
+     *
+     * @param classLoader the {@link ClassLoader} to scan
+     * @param packageName the package name like "org.primefaces.extensions.selenium.component"
+     * @return the classes found
+     * @throws IOException if the classpath could not be read
+     */
+    public static List<Class<?>> findClasses(ClassLoader classLoader, String packageName) throws IOException {
+        String path = packageName.replace('.', '/');
+        List<String> classNames = new ArrayList<>();
 
-        ArrayList<Field> fields = new ArrayList<>(Arrays.asList(clazz.getDeclaredFields()));
+        Enumeration<URL> resources = classLoader.getResources(path);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if ("file".equals(resource.getProtocol())) {
+                File directory = new File(URLDecoder.decode(resource.getFile(), StandardCharsets.UTF_8.name()));
+                collectClassNames(directory, packageName, classNames);
+            }
+            else {
+                URLConnection connection = resource.openConnection();
+                if (connection instanceof JarURLConnection) {
+                    JarFile jar = ((JarURLConnection) connection).getJarFile();
+                    Enumeration<JarEntry> entries = jar.entries();
+                    while (entries.hasMoreElements()) {
+                        String name = entries.nextElement().getName();
+                        if (name.startsWith(path + "/") && name.endsWith(".class")) {
+                            classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                        }
+                    }
+                }
+            }
+        }
 
-        Class<?> superClazz = clazz.getSuperclass();
-        while (superClazz != null && superClazz != Object.class) {
-            fields.addAll(Arrays.asList(superClazz.getDeclaredFields()));
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            }
+            catch (Throwable e) {
+                // ignore classes which can't be loaded
+            }
+        }
 
-            superClazz = superClazz.getSuperclass();
+        return classes;
+    }
+
+    private static void collectClassNames(File directory, String packageName, List<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
         }
 
-        return fields;
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectClassNames(file, packageName + "." + file.getName(), classNames);
+            }
+            else if (file.getName().endsWith(".class")) {
+                classNames.add(packageName + "." + file.getName().substring(0, file.getName().length() - ".class".length()));
+            }
+        }
     }
 }
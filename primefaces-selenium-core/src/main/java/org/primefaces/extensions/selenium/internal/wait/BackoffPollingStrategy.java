@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.wait;
+
+import org.primefaces.extensions.selenium.spi.PollingStrategy;
+
+/**
+ * Polls aggressively with the initial interval for the first polls and then backs off exponentially up to a maximum interval. Most conditions are met within
+ * a few milliseconds on a local browser, while long waits on slow grids don't flood the browser with probes.
+ */
+public class BackoffPollingStrategy implements PollingStrategy {
+
+    private final long initialInterval;
+    private final int aggressivePolls;
+    private final double factor;
+    private final long maxInterval;
+
+    public BackoffPollingStrategy(long initialInterval, int aggressivePolls, double factor, long maxInterval) {
+        this.initialInterval = initialInterval;
+        this.aggressivePolls = aggressivePolls;
+        this.factor = factor;
+        this.maxInterval = maxInterval;
+    }
+
+    @Override
+    public long getInterval(int poll) {
+        if (poll <= aggressivePolls) {
+            return initialInterval;
+        }
+
+        double interval = initialInterval * Math.pow(factor, (double) poll - aggressivePolls);
+        return (long) Math.min(interval, maxInterval);
+    }
+}
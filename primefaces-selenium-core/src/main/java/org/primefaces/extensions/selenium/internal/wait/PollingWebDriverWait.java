@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.wait;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.primefaces.extensions.selenium.internal.ConfigProvider;
+import org.primefaces.extensions.selenium.internal.metrics.Metric;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics;
+import org.primefaces.extensions.selenium.internal.metrics.Metrics.Measurement;
+import org.primefaces.extensions.selenium.internal.proxy.ElementCache;
+import org.primefaces.extensions.selenium.spi.PollingStrategy;
+
+/**
+ * {@link WebDriverWait} with a millisecond timeout, which sleeps between the polls as told by a {@link PollingStrategy}.
+ */
+public class PollingWebDriverWait extends WebDriverWait {
+
+    private final PollingSleeper sleeper;
+    private final Metric metric;
+    private final ElementCache elementCache;
+
+    public PollingWebDriverWait(WebDriver driver, long timeoutInMillis) {
+        this(driver, timeoutInMillis, (Metric) null);
+    }
+
+    /**
+     * Creates a wait, which measures every {@link #until(Function)} as call of the given {@link Metric}. Without a {@link Metric} the commands of the polls are
+     * counted for the surrounding measurement.
+     *
+     * @param driver the {@link WebDriver}
+     * @param timeoutInMillis the timeout in milliseconds
+     * @param metric the {@link Metric} or null
+     */
+    public PollingWebDriverWait(WebDriver driver, long timeoutInMillis, Metric metric) {
+        this(driver, timeoutInMillis, new PollingSleeper(ConfigProvider.getInstance().getPollingStrategy()), metric);
+    }
+
+    public PollingWebDriverWait(WebDriver driver, long timeoutInMillis, PollingStrategy strategy) {
+        this(driver, timeoutInMillis, new PollingSleeper(strategy), null);
+    }
+
+    private PollingWebDriverWait(WebDriver driver, long timeoutInMillis, PollingSleeper sleeper, Metric metric) {
+        super(driver, Clock.systemDefaultZone(), sleeper, 0, sleeper.strategy.getInterval(1));
+        this.sleeper = sleeper;
+        this.metric = metric;
+        this.elementCache = ElementCache.of(driver);
+        withTimeout(Duration.ofMillis(timeoutInMillis));
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        sleeper.polls = 0;
+
+        // every poll has to see the current DOM, finding elements doesn't invalidate the elements and lists located by the previous poll
+        Function<? super WebDriver, V> poll = driver -> {
+            elementCache.invalidate();
+            return isTrue.apply(driver);
+        };
+
+        try {
+            if (metric == null) {
+                return super.until(poll);
+            }
+
+            try (Measurement measurement = Metrics.start(metric)) {
+                try {
+                    return super.until(poll);
+                }
+                catch (TimeoutException e) {
+                    measurement.timeout();
+                    throw e;
+                }
+            }
+        }
+        finally {
+            // the code after the wait has to see the DOM that was waited for
+            elementCache.invalidate();
+        }
+    }
+
+    private static final class PollingSleeper implements Sleeper {
+
+        private final PollingStrategy strategy;
+        private int polls;
+
+        PollingSleeper(PollingStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        @Override
+        public void sleep(Duration duration) throws InterruptedException {
+            polls++;
+            Thread.sleep(strategy.getInterval(polls));
+        }
+    }
+}
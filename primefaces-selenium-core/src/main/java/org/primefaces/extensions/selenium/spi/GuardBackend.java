@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.spi;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Detects when the AJAX requests triggered by a guarded action have completed. Can be set via the <code>guardBackend</code> property of the
+ * <code>config.properties</code>. If the configured backend doesn't support the current browser, the AJAX guard falls back to polling the readiness
+ * script.
+ */
+public interface GuardBackend {
+
+    /**
+     * Can this backend be used with the given driver? E.g. a backend based on browser specific protocols only supports some browsers.
+     *
+     * @param driver the {@link WebDriver}
+     * @return true if supported
+     */
+    boolean supports(WebDriver driver);
+
+    /**
+     * Called once for every new {@link WebDriver}, before it is used.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    default void configure(WebDriver driver) {
+
+    }
+
+    /**
+     * Blocks until the document is ready and no AJAX request, animation or navigation is running anymore.
+     *
+     * @param driver the {@link WebDriver}
+     * @param timeoutInMillis the timeout in milliseconds
+     * @throws org.openqa.selenium.TimeoutException if AJAX did not complete within the timeout
+     */
+    void waitUntilAjaxCompletes(WebDriver driver, long timeoutInMillis);
+}
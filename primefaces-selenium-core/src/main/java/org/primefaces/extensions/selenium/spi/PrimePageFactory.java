@@ -22,7 +22,6 @@
 package org.primefaces.extensions.selenium.spi;
 
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
 import org.primefaces.extensions.selenium.AbstractPrimePage;
 
 public class PrimePageFactory {
@@ -34,7 +33,7 @@ public class PrimePageFactory {
         try {
             T instance = page.newInstance();
 
-            PrimePageFragmentFactory.setMembers(driver, new DefaultElementLocatorFactory(driver), instance);
+            PrimePageFragmentFactory.setMembers(driver, driver, instance);
 
             instance.setWebDriver(driver);
 
@@ -21,37 +21,50 @@
  */
 package org.primefaces.extensions.selenium.spi;
 
-import java.lang.reflect.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
 import java.util.List;
 
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.WrapsElement;
-import org.openqa.selenium.support.FindAll;
-import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.FindBys;
-import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
-import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
 import org.primefaces.extensions.selenium.AbstractPrimePage;
 import org.primefaces.extensions.selenium.AbstractPrimePageFragment;
 import org.primefaces.extensions.selenium.PrimeSelenium;
-import org.primefaces.extensions.selenium.findby.FindByParentPartialId;
 import org.primefaces.extensions.selenium.findby.FindByParentPartialIdElementLocator;
 import org.primefaces.extensions.selenium.internal.proxy.ElementLocatorInterceptor;
 import org.primefaces.extensions.selenium.internal.proxy.ElementsLocatorInterceptor;
+import org.primefaces.extensions.selenium.internal.proxy.InjectionPlan;
+import org.primefaces.extensions.selenium.internal.proxy.InjectionPlan.InjectionPoint;
 import org.primefaces.extensions.selenium.internal.proxy.LazyElementLocator;
+import org.primefaces.extensions.selenium.internal.proxy.LazyMembersInterceptor;
 import org.primefaces.extensions.selenium.internal.proxy.ProxyUtils;
 
 import net.bytebuddy.ByteBuddy;
-import net.bytebuddy.implementation.Implementation;
-import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.TypeCache;
+import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.implementation.MethodDelegation;
 import net.bytebuddy.matcher.ElementMatchers;
 
 public class PrimePageFragmentFactory {
 
+    private static final String INTERCEPTOR_FIELD = "$$pfseleniumInterceptor";
+    private static final String MEMBERS_FIELD = "$$pfseleniumMembers";
+
+    private static final ClassValue<Boolean> LAZY_MEMBERS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isLazyInjectable(type);
+        }
+    };
+
+    private static final TypeCache<Class<?>> PROXY_CACHE = new TypeCache.WithInlineExpunction<>(TypeCache.Sort.SOFT);
+
     private PrimePageFragmentFactory() {
     }
 
@@ -79,134 +92,183 @@ public class PrimePageFragmentFactory {
 
     public static <T extends WebElement> T create(Class<T> fragment, WebElement element, ElementLocator el) {
         try {
-            T proxy = proxy(fragment,
-                        InvocationHandlerAdapter.of((Object p, Method method, Object[] args) -> method.invoke(el.findElement(), args)));
-
             WebDriver driver = WebDriverProvider.get();
 
-            if (proxy instanceof AbstractPrimePage) {
-                ((AbstractPrimePage) proxy).setWebDriver(driver);
-            }
-            if (proxy instanceof AbstractPrimePageFragment) {
-                ((AbstractPrimePageFragment) proxy).setWebDriver(driver);
-                ((AbstractPrimePageFragment) proxy).setElementLocator(el);
-            }
-
-            setMembers(driver, new DefaultElementLocatorFactory(proxy), proxy);
-
-            return proxy;
+            return proxy(fragment, el, driver);
         }
         catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    static void setMembers(WebDriver driver, ElementLocatorFactory elf, Object obj) {
-
-        for (Field field : ProxyUtils.collectFields(obj)) {
-            if (field.getAnnotation(FindBy.class) != null
-                        || field.getAnnotation(FindAll.class) != null
-                        || field.getAnnotation(FindBys.class) != null) {
-                ElementLocator el = new LazyElementLocator(elf, field);
+    static void setMembers(WebDriver driver, SearchContext searchContext, Object obj) {
+        ElementLocator parentEl = null;
+        if (obj instanceof AbstractPrimePageFragment) {
+            parentEl = ((AbstractPrimePageFragment) obj).getElementLocator();
+        }
 
-                setMember(driver, el, field, obj);
+        for (InjectionPoint injectionPoint : InjectionPlan.of(obj.getClass()).getInjectionPoints()) {
+            ElementLocator el;
+            if (injectionPoint.getFindByParentPartialId() != null) {
+                el = new FindByParentPartialIdElementLocator(driver, parentEl, injectionPoint.getFindByParentPartialId());
             }
-
-            FindByParentPartialId findByParentPartialId = field.getAnnotation(FindByParentPartialId.class);
-            if (findByParentPartialId != null) {
-                ElementLocator parentEl = null;
-                if (obj instanceof AbstractPrimePageFragment) {
-                    parentEl = ((AbstractPrimePageFragment) obj).getElementLocator();
-                }
-
-                ElementLocator el = new FindByParentPartialIdElementLocator(driver, parentEl, findByParentPartialId);
-
-                setMember(driver, el, field, obj);
+            else {
+                el = new LazyElementLocator(driver, searchContext, injectionPoint.getLocatorDescriptor(), parentEl);
             }
+
+            setMember(driver, el, injectionPoint, obj);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> void setMember(WebDriver driver, ElementLocator el, Field field, Object obj) {
+    private static void setMember(WebDriver driver, ElementLocator el, InjectionPoint injectionPoint, Object obj) {
         Object value = null;
 
-        if (WebElement.class.isAssignableFrom(field.getType())) {
-            value = proxy((Class<T>) field.getType(),
-                        MethodDelegation.to(new ElementLocatorInterceptor(el)));
-
-            if (value instanceof AbstractPrimePage) {
-                ((AbstractPrimePage) value).setWebDriver(driver);
-            }
-            if (value instanceof AbstractPrimePageFragment) {
-                ((AbstractPrimePageFragment) value).setWebDriver(driver);
-                ((AbstractPrimePageFragment) value).setElementLocator(el);
-            }
+        if (injectionPoint.getElementType() != null) {
+            value = proxy(injectionPoint.getElementType(), el, driver);
+        }
 
-            DefaultElementLocatorFactory delf = new DefaultElementLocatorFactory((SearchContext) value);
+        if (injectionPoint.getListElementType() != null) {
+            InvocationHandler handler = new ElementsLocatorInterceptor(el, injectionPoint.getListElementType(), driver);
 
-            setMembers(driver, delf, value);
+            value = Proxy.newProxyInstance(
+                        ProxyUtils.class.getClassLoader(), new Class[] {List.class}, handler);
         }
 
-        if (List.class.isAssignableFrom(field.getType())) {
-            Class<? extends WebElement> genericClass = extractGenericListType(field);
-            if (genericClass != null) {
-                InvocationHandler handler = new ElementsLocatorInterceptor(el, genericClass);
+        injectionPoint.set(obj, value);
+    }
 
-                value = Proxy.newProxyInstance(
-                            ProxyUtils.class.getClassLoader(), new Class[] {List.class}, handler);
+    /**
+     * Generates the proxy types of the given fragment classes upfront, so the first page creations don't have to pay for the class generation.
+     *
+     * @param fragments the fragment classes to generate proxies for
+     */
+    public static void prewarm(Collection<Class<?>> fragments) {
+        for (Class<?> fragment : fragments) {
+            if (isProxyable(fragment)) {
+                try {
+                    getProxyClass(fragment);
+                }
+                catch (Throwable e) {
+                    // not proxyable, it will fail later if it is really used as fragment
+                }
             }
         }
+    }
 
-        try {
-            field.setAccessible(true);
-            field.set(obj, value);
-        }
-        catch (IllegalArgumentException | IllegalAccessException e) {
-            throw new RuntimeException("Can not set field in PageFragment!", e);
-        }
+    private static boolean isProxyable(Class<?> clazz) {
+        int modifiers = clazz.getModifiers();
+        return WebElement.class.isAssignableFrom(clazz)
+                    && !clazz.isInterface()
+                    && Modifier.isPublic(modifiers)
+                    && !Modifier.isFinal(modifiers)
+                    && (clazz.getEnclosingClass() == null || Modifier.isStatic(modifiers));
     }
 
+    /**
+     * Creates a proxy of the given fragment class. Its members are injected on the first call of one of its own methods, see {@link LazyMembersInterceptor},
+     * if the fragment qualifies for it - otherwise they are injected right away.
+     *
+     * @param clazz the fragment class
+     * @param el the {@link ElementLocator} of the fragment
+     * @param driver the {@link WebDriver}
+     * @return the proxy
+     */
     @SuppressWarnings("unchecked")
-    private static Class<? extends WebElement> extractGenericListType(Field field) {
-        // Attempt to discover the generic type of the list
-        Type genericType = field.getGenericType();
-        if (!(genericType instanceof ParameterizedType)) {
-            return null;
-        }
+    private static <T extends WebElement> T proxy(Class<T> clazz, ElementLocator el, WebDriver driver) {
+        Class<?> proxyClass = getProxyClass(clazz);
 
-        Type listGenericType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
         try {
-            Class<? extends WebElement> listGenericClass = (Class<? extends WebElement>) Class.forName(listGenericType.getTypeName());
-            if (WebElement.class.isAssignableFrom(listGenericClass)) {
-                return listGenericClass;
+            T proxy = (T) proxyClass.newInstance();
+            proxyClass.getField(INTERCEPTOR_FIELD).set(proxy, new ElementLocatorInterceptor(el, driver));
+
+            if (proxy instanceof AbstractPrimePage) {
+                ((AbstractPrimePage) proxy).setWebDriver(driver);
+            }
+            if (proxy instanceof AbstractPrimePageFragment) {
+                ((AbstractPrimePageFragment) proxy).setWebDriver(driver);
+                ((AbstractPrimePageFragment) proxy).setElementLocator(el);
+            }
+
+            if (LAZY_MEMBERS.get(clazz)) {
+                proxyClass.getField(MEMBERS_FIELD).set(proxy, new LazyMembersInterceptor(() -> setMembers(driver, proxy, proxy)));
             }
+            else {
+                proxyClass.getField(MEMBERS_FIELD).set(proxy, new LazyMembersInterceptor(null));
+                setMembers(driver, proxy, proxy);
+            }
+            return proxy;
         }
-        catch (ClassNotFoundException ex) {
-            // do nothing
+        catch (InstantiationException | IllegalAccessException | NoSuchFieldException e) {
+            throw new RuntimeException(e);
         }
+    }
 
-        return null;
+    /**
+     * Gets the cached proxy type of a fragment class or generates it. The generated type delegates to the {@link ElementLocatorInterceptor} stored in
+     * {@link #INTERCEPTOR_FIELD} and the {@link LazyMembersInterceptor} stored in {@link #MEMBERS_FIELD}, so one type can be shared by all instances of the
+     * fragment.
+     *
+     * @param clazz the fragment class
+     * @return the proxy type
+     */
+    private static Class<?> getProxyClass(Class<?> clazz) {
+        ClassLoader classLoader = PrimeSelenium.class.getClassLoader();
+
+        return PROXY_CACHE.findOrInsert(classLoader, clazz, () -> generateProxyClass(clazz, classLoader), PROXY_CACHE);
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> T proxy(Class<T> clazz, Implementation interceptor) {
-        Class<T> proxyClass = (Class<T>) new ByteBuddy()
+    private static Class<?> generateProxyClass(Class<?> clazz, ClassLoader classLoader) {
+        return new ByteBuddy()
                     .subclass(clazz)
                     .implement(WrapsElement.class)
+                    .defineField(INTERCEPTOR_FIELD, ElementLocatorInterceptor.class, Visibility.PUBLIC)
+                    .defineField(MEMBERS_FIELD, LazyMembersInterceptor.class, Visibility.PUBLIC)
+                    // the own methods of the fragment may access its members - the base class and WebElement methods don't
+                    .method(ElementMatchers.not(ElementMatchers.isAbstract())
+                                .and(ElementMatchers.not(ElementMatchers.isDefaultMethod()))
+                                .and(ElementMatchers.not(ElementMatchers.isDeclaredBy(Object.class)))
+                                .and(ElementMatchers.not(ElementMatchers.isDeclaredBy(AbstractPrimePageFragment.class))))
+                    .intercept(MethodDelegation.toField(MEMBERS_FIELD))
+                    // registered last, so it takes precedence
                     .method(ElementMatchers.isDeclaredBy(WebElement.class)
                                 .or(ElementMatchers.isDeclaredBy(WrapsElement.class))
                                 .or(ElementMatchers.named("hashCode"))
                                 .or(ElementMatchers.named("equals")))
-                    .intercept(interceptor)
+                    .intercept(MethodDelegation.toField(INTERCEPTOR_FIELD))
                     .make()
-                    .load(PrimeSelenium.class.getClassLoader())
+                    .load(classLoader)
                     .getLoaded();
+    }
 
-        try {
-            return proxyClass.newInstance();
+    /**
+     * Can the members of a fragment be injected lazily? The injection is triggered by the overridden methods of the proxy, but final methods can't be
+     * overridden and package-private ones neither, as the proxy type is loaded by another class loader. Non-private members may also be read directly by other
+     * classes. Such fragments get their members injected when they are created.
+     *
+     * @param clazz the fragment class
+     * @return true if the members can be injected lazily
+     */
+    private static boolean isLazyInjectable(Class<?> clazz) {
+        for (InjectionPoint injectionPoint : InjectionPlan.of(clazz).getInjectionPoints()) {
+            if (!injectionPoint.isPrivateField()) {
+                return false;
+            }
         }
-        catch (InstantiationException | IllegalAccessException e) {
-            throw new RuntimeException(e);
+
+        Class<?> current = clazz;
+        while (current != null && current != Object.class && current != AbstractPrimePageFragment.class) {
+            for (Method method : current.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (method.isSynthetic() || Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers) || Modifier.isAbstract(modifiers)) {
+                    continue;
+                }
+                if (Modifier.isFinal(modifiers) || !Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers)) {
+                    return false;
+                }
+            }
+            current = current.getSuperclass();
         }
+
+        return true;
     }
 }
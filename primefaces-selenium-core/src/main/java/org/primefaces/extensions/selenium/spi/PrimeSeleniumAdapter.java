@@ -38,4 +38,49 @@ public interface PrimeSeleniumAdapter {
     default void registerOnloadScripts(List<String> scripts) {
 
     }
+
+    /**
+     * Starts the application server of a shard. Called once per shard, in parallel, if <code>shards</code> is greater than 1. The default starts the single
+     * server of {@link #startup()} for the first shard only, so all shards share it.
+     *
+     * @param shard the shard, from 0 to <code>shards - 1</code>
+     * @throws Exception if the server can't be started
+     */
+    default void startup(int shard) throws Exception {
+        if (shard == 0) {
+            startup();
+        }
+    }
+
+    /**
+     * Creates a driver for the test classes of a shard, e.g. connected to another Selenium node.
+     *
+     * @param shard the shard, from 0 to <code>shards - 1</code>
+     * @return the driver
+     */
+    default WebDriver createWebDriver(int shard) {
+        return createWebDriver();
+    }
+
+    /**
+     * Gets the base URL of the application server of a shard.
+     *
+     * @param shard the shard, from 0 to <code>shards - 1</code>
+     * @return the base URL
+     */
+    default String getBaseUrl(int shard) {
+        return getBaseUrl();
+    }
+
+    /**
+     * Stops the application server of a shard, see {@link #startup(int)}.
+     *
+     * @param shard the shard, from 0 to <code>shards - 1</code>
+     * @throws Exception if the server can't be stopped
+     */
+    default void shutdown(int shard) throws Exception {
+        if (shard == 0) {
+            shutdown();
+        }
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.spi;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * A command sent through the driver decorator, see {@link WebDriverListener} and {@link WebDriverInterceptor}.
+ */
+public final class WebDriverCommand {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    public enum Type {
+        // navigation
+        GET,
+        NAVIGATE_TO,
+        NAVIGATE_BACK,
+        NAVIGATE_FORWARD,
+        NAVIGATE_REFRESH,
+
+        // driver
+        GET_CURRENT_URL,
+        GET_TITLE,
+        GET_PAGE_SOURCE,
+        GET_WINDOW_HANDLE,
+        GET_WINDOW_HANDLES,
+        EXECUTE_SCRIPT,
+        EXECUTE_ASYNC_SCRIPT,
+        PERFORM,
+        SCREENSHOT,
+        CLOSE,
+        QUIT,
+
+        // driver and element
+        FIND_ELEMENT,
+        FIND_ELEMENTS,
+
+        // element
+        CLICK,
+        SUBMIT,
+        SEND_KEYS,
+        CLEAR,
+        GET_TAG_NAME,
+        GET_ATTRIBUTE,
+        GET_CSS_VALUE,
+        GET_TEXT,
+        IS_SELECTED,
+        IS_ENABLED,
+        IS_DISPLAYED,
+        GET_LOCATION,
+        GET_SIZE,
+        GET_RECT;
+
+        /**
+         * @return true if the command loads a new document
+         */
+        public boolean isNavigation() {
+            return this == GET || this == NAVIGATE_TO || this == NAVIGATE_BACK || this == NAVIGATE_FORWARD || this == NAVIGATE_REFRESH;
+        }
+
+        /**
+         * @return true if the command changes the value of an element
+         */
+        public boolean isValueChange() {
+            return this == SEND_KEYS || this == CLEAR;
+        }
+    }
+
+    private final Type type;
+    private final WebDriver driver;
+    private final WebElement element;
+    private final Object[] args;
+    private final boolean readOnly;
+
+    public WebDriverCommand(Type type, WebDriver driver, WebElement element, Object[] args) {
+        this(type, driver, element, args, false);
+    }
+
+    public WebDriverCommand(Type type, WebDriver driver, WebElement element, Object[] args, boolean readOnly) {
+        this.type = type;
+        this.driver = driver;
+        this.element = element;
+        this.args = args == null ? NO_ARGS : args;
+        this.readOnly = readOnly;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the decorated driver
+     */
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * @return the decorated element the command is sent to, <code>null</code> for driver commands
+     */
+    public WebElement getElement() {
+        return element;
+    }
+
+    /**
+     * @return the arguments of the command, e.g. the URL, the script and its arguments or the keys
+     */
+    public Object[] getArgs() {
+        return args;
+    }
+
+    /**
+     * @return true if the command was sent by a caller which declared that it doesn't change the DOM, like the library's own scripts which only read state
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public String toString() {
+        return type.name();
+    }
+}
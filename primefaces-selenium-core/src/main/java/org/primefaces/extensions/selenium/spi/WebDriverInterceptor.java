@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.spi;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Wraps the execution of the commands sent through the driver decorator, e.g. to retry, delay or replace them. Can be registered via the
+ * <code>webDriverListeners</code> property of the <code>config.properties</code>. Interceptors are called in the order they are registered.
+ */
+public interface WebDriverInterceptor {
+
+    /**
+     * Gets the types of the commands to be intercepted. It's asked once when registered; commands of other types bypass the interceptor.
+     *
+     * @return the command types, all by default
+     */
+    default Set<WebDriverCommand.Type> getCommandTypes() {
+        return EnumSet.allOf(WebDriverCommand.Type.class);
+    }
+
+    /**
+     * Executes the command.
+     *
+     * @param command the {@link WebDriverCommand}
+     * @param invocation the next interceptor or the command itself
+     * @return the result of the command, <code>null</code> for void commands
+     */
+    Object intercept(WebDriverCommand command, Invocation invocation);
+
+    @FunctionalInterface
+    interface Invocation {
+
+        Object proceed();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.spi;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Gets notified about the commands sent through the driver decorator. Can be registered via the <code>webDriverListeners</code> property of the
+ * <code>config.properties</code>. Configured listeners are shared by all drivers and called on the thread sending the command, so they should be cheap and
+ * thread-safe.
+ */
+public interface WebDriverListener {
+
+    /**
+     * Gets the types of the commands to be notified about. It's asked once when registered; commands of other types don't pay for the notification.
+     *
+     * @return the command types, all by default
+     */
+    default Set<WebDriverCommand.Type> getCommandTypes() {
+        return EnumSet.allOf(WebDriverCommand.Type.class);
+    }
+
+    default void beforeCommand(WebDriverCommand command) {
+
+    }
+
+    /**
+     * Called after a command completed.
+     *
+     * @param command the {@link WebDriverCommand}
+     * @param result the result, <code>null</code> for void commands
+     * @param nanos the duration of the command in nanoseconds
+     */
+    default void afterCommand(WebDriverCommand command, Object result, long nanos) {
+
+    }
+
+    /**
+     * Called if a command failed. The exception is rethrown afterwards.
+     *
+     * @param command the {@link WebDriverCommand}
+     * @param exception the exception
+     * @param nanos the duration of the command in nanoseconds
+     */
+    default void onException(WebDriverCommand command, RuntimeException exception, long nanos) {
+
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.spi;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.primefaces.extensions.selenium.internal.ConfigProvider;
+import org.primefaces.extensions.selenium.internal.proxy.ElementCache;
+
+/**
+ * Keeps released drivers for the next test classes, so they don't have to wait for a browser startup. Drivers are reset when released and checked for health
+ * when acquired; a driver is quit once it reached the configured maximum number of uses. Drivers are only reused for test classes of the same shard.
+ */
+class WebDriverPool {
+
+    private static final Map<Integer, ConcurrentLinkedDeque<WebDriver>> IDLE = new ConcurrentHashMap<>();
+
+    private static final Map<WebDriver, Integer> USES = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private WebDriverPool() {
+    }
+
+    static boolean hasIdle(int shard) {
+        return !getIdle(shard).isEmpty();
+    }
+
+    /**
+     * Gets a healthy idle driver.
+     *
+     * @param shard the shard of the test class
+     * @return the driver or <code>null</code> if none is available
+     */
+    static WebDriver acquire(int shard) {
+        WebDriver driver;
+        while ((driver = getIdle(shard).pollFirst()) != null) {
+            if (isHealthy(driver)) {
+                return driver;
+            }
+            quit(driver);
+        }
+        return null;
+    }
+
+    /**
+     * Resets the driver and keeps it for the next test class, or quits it if it was used too often or can't be reset.
+     *
+     * @param driver the driver
+     * @param shard the shard the driver was created for
+     */
+    static void release(WebDriver driver, int shard) {
+        int uses = USES.merge(driver, 1, Integer::sum);
+
+        int maxReuse = ConfigProvider.getInstance().getWebDriverMaxReuse();
+        if (maxReuse > 0 && uses >= maxReuse) {
+            quit(driver);
+            return;
+        }
+
+        try {
+            reset(driver);
+            getIdle(shard).offerFirst(driver);
+        }
+        catch (WebDriverException e) {
+            quit(driver);
+        }
+    }
+
+    static void shutdown() {
+        for (ConcurrentLinkedDeque<WebDriver> idle : IDLE.values()) {
+            WebDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                quit(driver);
+            }
+        }
+    }
+
+    private static ConcurrentLinkedDeque<WebDriver> getIdle(int shard) {
+        return IDLE.computeIfAbsent(shard, s -> new ConcurrentLinkedDeque<>());
+    }
+
+    private static void reset(WebDriver driver) {
+        // cookies and storage can only be cleared while still on the origin of the application
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) { }");
+
+        driver.get("about:blank");
+
+        WebDriverProvider.resetWindowSize(driver);
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        }
+        catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static void quit(WebDriver driver) {
+        USES.remove(driver);
+        ElementCache.forget(driver);
+        try {
+            driver.quit();
+        }
+        catch (WebDriverException e) {
+            // already dead
+        }
+    }
+}
@@ -21,22 +21,42 @@
  */
 package org.primefaces.extensions.selenium.spi;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
-import org.openqa.selenium.support.events.EventFiringWebDriver;
 import org.primefaces.extensions.selenium.PrimeSelenium;
 import org.primefaces.extensions.selenium.internal.ConfigProvider;
+import org.primefaces.extensions.selenium.internal.OnloadScripts;
 import org.primefaces.extensions.selenium.internal.OnloadScriptsEventListener;
+import org.primefaces.extensions.selenium.internal.Shards;
+import org.primefaces.extensions.selenium.internal.driver.PrimeWebDriver;
+import org.primefaces.extensions.selenium.internal.proxy.ElementCache;
 
 public class WebDriverProvider {
 
     private static final ThreadLocal<WebDriver> WEB_DRIVER = new ThreadLocal<>();
 
+    // at most one prewarmed driver per shard, so a driver waiting for the next class of its shard doesn't block the prewarming for other shards
+    private static final Map<Integer, CompletableFuture<WebDriver>> PREWARMED = new ConcurrentHashMap<>();
+
+    // the shards the drivers were created for, so pooled drivers are only reused within their shard
+    private static final Map<WebDriver, Integer> SHARDS = Collections.synchronizedMap(new IdentityHashMap<>());
+
     private static final int CREATE_WEBDRIVER_RETRIES = 3;
 
     public static void set(WebDriver driver) {
         WEB_DRIVER.set(driver);
+        ElementCache.of(driver).navigated();
     }
 
     public static WebDriver get() {
@@ -46,43 +66,245 @@ public class WebDriverProvider {
     public static WebDriver get(boolean create) {
         WebDriver driver = WEB_DRIVER.get();
         if (driver == null && create) {
-            PrimeSeleniumAdapter adapter = ConfigProvider.getInstance().getAdapter();
-            int fails = 0;
-
-            do {
-                /*
-                 * Avoid issues like 2021-01-18T20:31:34.5805460Z org.openqa.selenium.WebDriverException: 2021-01-18T20:31:34.5810490Z
-                 * java.net.ConnectException: Failed to connect to localhost/0:0:0:0:0:0:0:1:27231 which sometimes occur during Github Action jobs.
-                 */
-                try {
-                    driver = adapter.createWebDriver();
+            int shard = Shards.current();
+            boolean permit = false;
+            try {
+                // pooled drivers first, they are already running
+                if (ConfigProvider.getInstance().isWebDriverPool() && WebDriverPool.hasIdle(shard)) {
+                    acquirePermit(shard);
+                    permit = true;
+                    driver = WebDriverPool.acquire(shard);
+                }
+                if (driver == null) {
+                    // a prewarmed driver already holds a permit
+                    driver = takePrewarmed(shard);
+                    if (driver != null && permit) {
+                        BrowserLimit.release();
+                        permit = false;
+                    }
                 }
-                catch (WebDriverException ex) {
-                    fails++;
-                    if (fails >= CREATE_WEBDRIVER_RETRIES) {
-                        throw ex;
+                if (driver == null) {
+                    if (!permit) {
+                        acquirePermit(shard);
+                        permit = true;
                     }
+                    driver = createWebDriver(shard);
                 }
-            } while (driver == null);
+            }
+            catch (RuntimeException e) {
+                if (permit) {
+                    BrowserLimit.release();
+                }
+                throw e;
+            }
 
+            BrowserLimit.held(driver);
+            SHARDS.put(driver, shard);
+            set(driver);
+        }
+        return driver;
+    }
+
+    /**
+     * Creates the driver for the next test class in the background, if <code>webDriverPrewarm</code> is enabled. The next {@link #get(boolean)} which has to
+     * create a driver takes it instead of waiting for a browser startup. The driver is created for the shard of the current test class. Nothing is prewarmed
+     * if <code>webDriverPool</code> is enabled, as the driver of the current class serves the next one.
+     */
+    public static void prewarm() {
+        ConfigProvider config = ConfigProvider.getInstance();
+        int shard = Shards.current();
+        if (!config.isWebDriverPrewarm() || config.isWebDriverPool() || PREWARMED.containsKey(shard)) {
+            return;
+        }
+        // never exceed parallelMaxBrowsers just for a prewarmed driver
+        if (!BrowserLimit.tryAcquire()) {
+            return;
+        }
+
+        CompletableFuture<WebDriver> future = new CompletableFuture<>();
+        if (PREWARMED.putIfAbsent(shard, future) != null) {
+            BrowserLimit.release();
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(createWebDriver(shard));
+            }
+            catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }, "primefaces-selenium-webdriver-prewarm");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static WebDriver takePrewarmed(int shard) {
+        CompletableFuture<WebDriver> future = PREWARMED.remove(shard);
+        if (future == null) {
+            return null;
+        }
+
+        try {
+            return future.join();
+        }
+        catch (CompletionException | CancellationException e) {
+            // create a new one the usual way
+            BrowserLimit.release();
+            return null;
+        }
+    }
+
+    private static void acquirePermit(int shard) {
+        if (!BrowserLimit.tryAcquire()) {
+            // the prewarmed drivers of other shards may never be taken, they must not keep this class waiting for a browser
+            quitPrewarmed(shard);
+            BrowserLimit.acquire();
+        }
+    }
+
+    /**
+     * Quits the prewarmed drivers of all shards except the given one.
+     *
+     * @param keep the shard to keep the prewarmed driver of or null
+     */
+    private static void quitPrewarmed(Integer keep) {
+        for (Integer shard : PREWARMED.keySet()) {
+            if (!shard.equals(keep)) {
+                WebDriver prewarmed = takePrewarmed(shard);
+                if (prewarmed != null) {
+                    prewarmed.quit();
+                    BrowserLimit.release();
+                }
+            }
+        }
+    }
+
+    private static WebDriver createWebDriver(int shard) {
+        PrimeSeleniumAdapter adapter = ConfigProvider.getInstance().getAdapter();
+        WebDriver driver = null;
+        int fails = 0;
+
+        do {
             /*
-             * Define window-size for headless-mode. Selenium WebDriver-default seems to be 800x600. This causes issues with modern themes (eg Saga) which use
-             * more space for some components. (eg DatePicker-popup)
+             * Avoid issues like 2021-01-18T20:31:34.5805460Z org.openqa.selenium.WebDriverException: 2021-01-18T20:31:34.5810490Z java.net.ConnectException:
+             * Failed to connect to localhost/0:0:0:0:0:0:0:1:27231 which sometimes occur during Github Action jobs.
              */
-            if (PrimeSelenium.isHeadless()) {
-                driver.manage().window().setSize(new Dimension(1920, 1080));
+            try {
+                driver = adapter.createWebDriver(shard);
+            }
+            catch (WebDriverException ex) {
+                fails++;
+                if (fails >= CREATE_WEBDRIVER_RETRIES) {
+                    throw ex;
+                }
+            }
+        } while (driver == null);
+
+        resetWindowSize(driver);
+
+        GuardBackend guardBackend = ConfigProvider.getInstance().getGuardBackend();
+        if (guardBackend.supports(driver)) {
+            guardBackend.configure(driver);
+        }
+
+        PrimeWebDriver primeDriver = new PrimeWebDriver(driver);
+        primeDriver.register(new OnloadScriptsEventListener());
+        for (Object listener : ConfigProvider.getInstance().getWebDriverListeners()) {
+            if (listener instanceof WebDriverListener) {
+                primeDriver.register((WebDriverListener) listener);
             }
-            else {
-                driver.manage().window().setSize(new Dimension(1280, 1000));
+            if (listener instanceof WebDriverInterceptor) {
+                primeDriver.register((WebDriverInterceptor) listener);
             }
+        }
 
-            EventFiringWebDriver eventDriver = new EventFiringWebDriver(driver);
-            eventDriver.register(new OnloadScriptsEventListener());
+        return primeDriver;
+    }
 
-            set(eventDriver);
+    /**
+     * Releases the driver of the current thread. It is kept in the pool for the next test class if <code>webDriverPool</code> is enabled, otherwise it's quit.
+     */
+    public static void release() {
+        WebDriver driver = WEB_DRIVER.get();
+        if (driver != null) {
+            Integer shard = SHARDS.remove(driver);
+            try {
+                if (ConfigProvider.getInstance().isWebDriverPool()) {
+                    WebDriverPool.release(driver, shard == null ? 0 : shard);
+                }
+                else {
+                    ElementCache.forget(driver);
+                    driver.quit();
+                }
+            }
+            finally {
+                BrowserLimit.released(driver);
+            }
+        }
+        set(null);
+        OnloadScripts.invalidate();
+    }
 
-            driver = eventDriver;
+    /**
+     * Quits all pooled and prewarmed drivers.
+     */
+    public static void shutdown() {
+        quitPrewarmed(null);
+        WebDriverPool.shutdown();
+    }
+
+    static void resetWindowSize(WebDriver driver) {
+        /*
+         * Define window-size for headless-mode. Selenium WebDriver-default seems to be 800x600. This causes issues with modern themes (eg Saga) which use more
+         * space for some components. (eg DatePicker-popup)
+         */
+        if (PrimeSelenium.isHeadless()) {
+            driver.manage().window().setSize(new Dimension(1920, 1080));
+        }
+        else {
+            driver.manage().window().setSize(new Dimension(1280, 1000));
+        }
+    }
+
+    /**
+     * Caps the number of browsers used at the same time by parallel test classes, see <code>parallelMaxBrowsers</code>.
+     */
+    private static final class BrowserLimit {
+
+        private static final int MAX_BROWSERS = ConfigProvider.getInstance().getParallelMaxBrowsers();
+
+        private static final Semaphore PERMITS = new Semaphore(MAX_BROWSERS > 0 ? MAX_BROWSERS : Integer.MAX_VALUE, true);
+
+        // drivers set from outside via WebDriverProvider#set don't hold a permit
+        private static final Set<WebDriver> HOLDERS = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        static void acquire() {
+            try {
+                PERMITS.acquire();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted while waiting for a free browser!", e);
+            }
+        }
+
+        static boolean tryAcquire() {
+            return PERMITS.tryAcquire();
+        }
+
+        static void release() {
+            PERMITS.release();
+        }
+
+        static void held(WebDriver driver) {
+            HOLDERS.add(driver);
+        }
+
+        static void released(WebDriver driver) {
+            if (HOLDERS.remove(driver)) {
+                PERMITS.release();
+            }
         }
-        return driver;
     }
 }
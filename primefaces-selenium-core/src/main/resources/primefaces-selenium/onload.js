@@ -1,26 +1,98 @@
 window.pfselenium = {
     navigating : false,
     submitting : false,
-    xhr : null
+    xhr : null,
+    activeRequests : 0,
+    lastRequestCompleted : null,
+    requests : {},
+    beacons : []
+};
+
+// count all in-flight requests, "xhr" is only reset once the last of them has completed
+var requestIds = 0;
+var requestStarted = function(request, url) {
+    var id = ++requestIds;
+    window.pfselenium.requests[id] = url ? String(url) : null;
+    window.pfselenium.activeRequests++;
+    window.pfselenium.xhr = request;
+    return id;
+};
+var requestCompleted = function(id) {
+    delete window.pfselenium.requests[id];
+    window.pfselenium.activeRequests = Math.max(0, window.pfselenium.activeRequests - 1);
+    window.pfselenium.lastRequestCompleted = Date.now();
+    if (window.pfselenium.activeRequests === 0) {
+        window.pfselenium.xhr = null;
+    }
+};
+
+var originalOpen = XMLHttpRequest.prototype.open;
+XMLHttpRequest.prototype.open = function(method, url) {
+    this.pfseleniumUrl = url;
+    return originalOpen.apply(this, arguments);
 };
 
 var originalSend = XMLHttpRequest.prototype.send;
 XMLHttpRequest.prototype.send = function() {
-    window.pfselenium.xhr = this;
+    var completed = false;
+    var id = requestStarted(this, this.pfseleniumUrl);
+    var onCompleted = function() {
+        if (!completed) {
+            completed = true;
+            requestCompleted(id);
+        }
+    };
 
-    this.addEventListener("load", function() {
-        window.pfselenium.xhr = null;
-    });
-    this.addEventListener("error", function() {
-        window.pfselenium.xhr = null;
-    });
-    this.addEventListener("abort", function() {
-        window.pfselenium.xhr = null;
-    });
+    // "loadend" is fired after "load", "error", "abort" and "timeout"
+    this.addEventListener("loadend", onCompleted);
 
-    originalSend.apply(this, arguments);
+    try {
+        originalSend.apply(this, arguments);
+    }
+    catch (e) {
+        onCompleted();
+        throw e;
+    }
 };
 
+if (window.fetch) {
+    var originalFetch = window.fetch;
+    window.fetch = function(input) {
+        var id = requestStarted(input, input && input.url ? input.url : input);
+
+        var promise;
+        try {
+            promise = originalFetch.apply(this, arguments);
+        }
+        catch (e) {
+            requestCompleted(id);
+            throw e;
+        }
+
+        return promise.then(function(response) {
+            requestCompleted(id);
+            return response;
+        }, function(error) {
+            requestCompleted(id);
+            throw error;
+        });
+    };
+}
+
+if (navigator.sendBeacon) {
+    // beacons are fire-and-forget and nobody waits for them, so they are only recorded for the debug info - counting them would reset "xhr" and
+    // release a guard before the AJAX request of the guarded action has even started
+    var originalSendBeacon = navigator.sendBeacon;
+    navigator.sendBeacon = function(url) {
+        var beacons = window.pfselenium.beacons;
+        beacons.push(url ? String(url) : null);
+        if (beacons.length > 10) {
+            beacons.shift();
+        }
+        return originalSendBeacon.apply(this, arguments);
+    };
+}
+
 var originalSubmit = HTMLFormElement.prototype.submit;
 HTMLFormElement.prototype.submit = function() {
     window.pfselenium.submitting = true;
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.proxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.How;
+
+public class CssSelectorCompilerTest {
+
+    @FindBy(id = "form:name")
+    private WebElement byId;
+
+    @FindBy(id = "a\"b\\c")
+    private WebElement byIdWithQuotes;
+
+    @FindBy(name = "form:name")
+    private WebElement byName;
+
+    @FindBy(className = "ui-panel")
+    private WebElement byClassName;
+
+    @FindBy(className = "ui-panel ui-widget")
+    private WebElement byClassNames;
+
+    @FindBy(tagName = "input")
+    private WebElement byTagName;
+
+    @FindBy(css = " .ui-panel > .title ")
+    private WebElement byCss;
+
+    @FindBy(how = How.ID, using = "panel")
+    private WebElement byHowId;
+
+    @FindBy(css = ".a, .b")
+    private WebElement bySelectorGroup;
+
+    @FindBy(css = "> .title")
+    private WebElement byLeadingCombinator;
+
+    @FindBy(xpath = "//div")
+    private WebElement byXpath;
+
+    @FindBy(linkText = "Home")
+    private WebElement byLinkText;
+
+    @FindBys({@FindBy(className = "ui-panel"), @FindBy(id = "title")})
+    private WebElement byFindBys;
+
+    @FindBys({@FindBy(css = "form .ui-panel"), @FindBy(className = "title")})
+    private WebElement byFindBysComplexFirst;
+
+    @FindBys({@FindBy(className = "ui-panel"), @FindBy(css = "form .title")})
+    private WebElement byFindBysComplexLater;
+
+    @FindBys({@FindBy(className = "ui-panel"), @FindBy(xpath = "//div")})
+    private WebElement byFindBysXpath;
+
+    @FindAll({@FindBy(className = "a"), @FindBy(className = "b")})
+    private WebElement byFindAll;
+
+    @Test
+    public void compileId() throws Exception {
+        assertEquals("[id=\"form:name\"]", CssSelectorCompiler.compile(field("byId")));
+        assertEquals("[id=\"panel\"]", CssSelectorCompiler.compile(field("byHowId")));
+    }
+
+    @Test
+    public void compileEscapesQuotesAndBackslashes() throws Exception {
+        assertEquals("[id=\"a\\\"b\\\\c\"]", CssSelectorCompiler.compile(field("byIdWithQuotes")));
+    }
+
+    @Test
+    public void compileName() throws Exception {
+        assertEquals("[name=\"form:name\"]", CssSelectorCompiler.compile(field("byName")));
+    }
+
+    @Test
+    public void compileClassAndTagName() throws Exception {
+        assertEquals(".ui-panel", CssSelectorCompiler.compile(field("byClassName")));
+        assertEquals("input", CssSelectorCompiler.compile(field("byTagName")));
+        // Selenium rejects compound class names, so the chained lookup has to report it
+        assertNull(CssSelectorCompiler.compile(field("byClassNames")));
+    }
+
+    @Test
+    public void compileCss() throws Exception {
+        assertEquals(".ui-panel > .title", CssSelectorCompiler.compile(field("byCss")));
+    }
+
+    @Test
+    public void compileRejectsSelectorGroupsAndLeadingCombinators() throws Exception {
+        assertNull(CssSelectorCompiler.compile(field("bySelectorGroup")));
+        assertNull(CssSelectorCompiler.compile(field("byLeadingCombinator")));
+    }
+
+    @Test
+    public void compileRejectsNonCssLocators() throws Exception {
+        assertNull(CssSelectorCompiler.compile(field("byXpath")));
+        assertNull(CssSelectorCompiler.compile(field("byLinkText")));
+        assertNull(CssSelectorCompiler.compile(field("byFindAll")));
+    }
+
+    @Test
+    public void compileFindBys() throws Exception {
+        assertEquals(".ui-panel [id=\"title\"]", CssSelectorCompiler.compile(field("byFindBys")));
+        assertEquals("form .ui-panel .title", CssSelectorCompiler.compile(field("byFindBysComplexFirst")));
+        assertNull(CssSelectorCompiler.compile(field("byFindBysComplexLater")));
+        assertNull(CssSelectorCompiler.compile(field("byFindBysXpath")));
+    }
+
+    @Test
+    public void isUnique() throws Exception {
+        assertTrue(CssSelectorCompiler.isUnique(field("byId")));
+        assertTrue(CssSelectorCompiler.isUnique(field("byHowId")));
+        assertTrue(CssSelectorCompiler.isUnique(field("byFindBys")));
+        assertFalse(CssSelectorCompiler.isUnique(field("byClassName")));
+        assertFalse(CssSelectorCompiler.isUnique(field("byFindBysComplexFirst")));
+        assertFalse(CssSelectorCompiler.isUnique(field("byXpath")));
+    }
+
+    @Test
+    public void isCompound() {
+        assertTrue(CssSelectorCompiler.isCompound(".ui-panel.ui-widget"));
+        assertTrue(CssSelectorCompiler.isCompound("input[name=\"a b > c, d\"]"));
+        assertTrue(CssSelectorCompiler.isCompound("li:not(.a .b)"));
+        assertTrue(CssSelectorCompiler.isCompound("[id=\"a\\\" b\"]"));
+        assertFalse(CssSelectorCompiler.isCompound("form .x"));
+        assertFalse(CssSelectorCompiler.isCompound(".a>.b"));
+        assertFalse(CssSelectorCompiler.isCompound(".a+.b"));
+        assertFalse(CssSelectorCompiler.isCompound(".a~.b"));
+        assertFalse(CssSelectorCompiler.isCompound(".a,.b"));
+        assertFalse(CssSelectorCompiler.isCompound(""));
+    }
+
+    private static Field field(String name) throws NoSuchFieldException {
+        return CssSelectorCompilerTest.class.getDeclaredField(name);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.proxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+public class ElementCacheTest {
+
+    @Test
+    public void ofKeepsOneCachePerDriver() {
+        WebDriver driver = Stubs.stub(WebDriver.class);
+        WebDriver other = Stubs.stub(WebDriver.class);
+
+        assertSame(ElementCache.of(driver), ElementCache.of(driver));
+        assertNotSame(ElementCache.of(driver), ElementCache.of(other));
+        assertSame(ElementCache.of(null), ElementCache.of(null));
+    }
+
+    @Test
+    public void invalidateOnlyChangesGeneration() {
+        ElementCache cache = ElementCache.of(Stubs.stub(WebDriver.class));
+        long generation = cache.getGeneration();
+        long navigation = cache.getNavigation();
+
+        cache.invalidate();
+
+        assertEquals(generation + 1, cache.getGeneration());
+        assertEquals(navigation, cache.getNavigation());
+    }
+
+    @Test
+    public void navigatedChangesGenerationAndNavigation() {
+        ElementCache cache = ElementCache.of(Stubs.stub(WebDriver.class));
+        long generation = cache.getGeneration();
+        long navigation = cache.getNavigation();
+
+        cache.navigated();
+
+        assertEquals(generation + 1, cache.getGeneration());
+        assertEquals(navigation + 1, cache.getNavigation());
+    }
+
+    @Test
+    public void invalidateDoesntAffectOtherDrivers() {
+        ElementCache cache = ElementCache.of(Stubs.stub(WebDriver.class));
+        ElementCache other = ElementCache.of(Stubs.stub(WebDriver.class));
+        long generation = other.getGeneration();
+
+        cache.invalidate();
+
+        assertEquals(generation, other.getGeneration());
+    }
+
+    @Test
+    public void forgetDropsCache() {
+        WebDriver driver = Stubs.stub(WebDriver.class);
+        ElementCache cache = ElementCache.of(driver);
+
+        ElementCache.forget(driver);
+
+        assertNotSame(cache, ElementCache.of(driver));
+    }
+}
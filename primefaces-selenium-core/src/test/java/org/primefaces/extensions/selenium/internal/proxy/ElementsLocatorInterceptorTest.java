@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.proxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.primefaces.extensions.selenium.internal.proxy.ElementsLocatorInterceptor.IndexedElementLocator;
+
+public class ElementsLocatorInterceptorTest {
+
+    private final WebDriver driver = Stubs.stub(WebDriver.class);
+    private final CountingLocator locator = new CountingLocator();
+    private final ElementsLocatorInterceptor interceptor = new ElementsLocatorInterceptor(locator, WebElement.class, driver);
+
+    @Test
+    public void reusesSnapshotWithinGeneration() {
+        locator.elements = elements(2);
+        List<WebElement> list = list();
+
+        assertEquals(2, list.size());
+        assertEquals(2, list.size());
+        assertEquals(1, locator.finds);
+    }
+
+    @Test
+    public void locatesAgainAfterInvalidate() {
+        locator.elements = elements(2);
+        List<WebElement> list = list();
+        assertEquals(2, list.size());
+
+        locator.elements = elements(3);
+        ElementCache.of(driver).invalidate();
+
+        assertEquals(3, list.size());
+        assertEquals(2, locator.finds);
+    }
+
+    @Test
+    public void indexedLocatorResolvesAcrossGenerations() {
+        List<WebElement> first = elements(2);
+        locator.elements = first;
+        IndexedElementLocator indexed = new IndexedElementLocator(interceptor, 1);
+
+        assertSame(first.get(1), indexed.findElement());
+        assertSame(first.get(1), indexed.findElement());
+        assertEquals(1, locator.finds);
+
+        List<WebElement> second = elements(2);
+        locator.elements = second;
+        ElementCache.of(driver).invalidate();
+
+        assertSame(second.get(1), indexed.findElement());
+        assertEquals(2, locator.finds);
+    }
+
+    @Test
+    public void indexedLocatorRefreshLocatesAgain() {
+        List<WebElement> first = elements(2);
+        locator.elements = first;
+        IndexedElementLocator indexed = new IndexedElementLocator(interceptor, 0);
+        assertSame(first.get(0), indexed.findElement());
+
+        // the element went stale without any change of the generation
+        List<WebElement> second = elements(2);
+        locator.elements = second;
+
+        assertSame(second.get(0), indexed.refresh());
+        assertSame(second.get(0), indexed.findElement());
+        assertEquals(2, locator.finds);
+    }
+
+    @Test
+    public void indexedLocatorOutOfRange() {
+        locator.elements = elements(1);
+        IndexedElementLocator indexed = new IndexedElementLocator(interceptor, 1);
+
+        assertThrows(NoSuchElementException.class, indexed::findElement);
+    }
+
+    @Test
+    public void listIsMutable() {
+        List<WebElement> elements = elements(2);
+        locator.elements = elements;
+        List<WebElement> list = list();
+
+        Collections.reverse(list);
+        assertSame(elements.get(1), list.get(0));
+
+        list.remove(0);
+        assertEquals(1, list.size());
+        // the changes don't leak into the snapshot, which the fragments of the list resolve their element from
+        assertSame(elements.get(1), new IndexedElementLocator(interceptor, 1).findElement());
+        assertEquals(1, locator.finds);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<WebElement> list() {
+        return (List<WebElement>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {List.class}, interceptor);
+    }
+
+    private static List<WebElement> elements(int size) {
+        WebElement[] elements = new WebElement[size];
+        for (int i = 0; i < size; i++) {
+            elements[i] = Stubs.stub(WebElement.class);
+        }
+        return Arrays.asList(elements);
+    }
+
+    private static final class CountingLocator implements ElementLocator {
+
+        private List<WebElement> elements = new ArrayList<>();
+        private int finds;
+
+        @Override
+        public WebElement findElement() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            finds++;
+            return elements;
+        }
+    }
+}
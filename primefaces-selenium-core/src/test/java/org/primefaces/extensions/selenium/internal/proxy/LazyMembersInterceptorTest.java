@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.proxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class LazyMembersInterceptorTest {
+
+    @Test
+    public void injectsOnlyOnce() throws Exception {
+        AtomicInteger injections = new AtomicInteger();
+        LazyMembersInterceptor interceptor = new LazyMembersInterceptor(injections::incrementAndGet);
+
+        assertEquals("a", interceptor.intercept(() -> "a"));
+        assertEquals("b", interceptor.intercept(() -> "b"));
+        assertEquals(1, injections.get());
+    }
+
+    @Test
+    public void retriesFailedInjection() throws Exception {
+        AtomicInteger injections = new AtomicInteger();
+        LazyMembersInterceptor interceptor = new LazyMembersInterceptor(() -> {
+            if (injections.incrementAndGet() == 1) {
+                throw new IllegalStateException("first injection fails");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> interceptor.intercept(() -> "a"));
+        assertEquals("b", interceptor.intercept(() -> "b"));
+        assertEquals("c", interceptor.intercept(() -> "c"));
+        assertEquals(2, injections.get());
+    }
+
+    @Test
+    public void injectionCallingBackDoesntRecurse() throws Exception {
+        AtomicInteger injections = new AtomicInteger();
+        LazyMembersInterceptor[] interceptor = new LazyMembersInterceptor[1];
+        interceptor[0] = new LazyMembersInterceptor(() -> {
+            injections.incrementAndGet();
+            try {
+                // like a member initialization calling a method of the fragment
+                interceptor[0].intercept(() -> null);
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals("a", interceptor[0].intercept(() -> "a"));
+        assertEquals(1, injections.get());
+    }
+
+    @Test
+    public void withoutInjector() throws Exception {
+        LazyMembersInterceptor interceptor = new LazyMembersInterceptor(null);
+
+        assertEquals("a", interceptor.intercept(() -> "a"));
+    }
+}
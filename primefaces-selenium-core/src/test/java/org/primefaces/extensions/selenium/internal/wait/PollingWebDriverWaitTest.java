@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2021 PrimeFaces Extensions
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.primefaces.extensions.selenium.internal.wait;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.primefaces.extensions.selenium.internal.proxy.ElementsLocatorInterceptor;
+
+public class PollingWebDriverWaitTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void untilLocatesListProxyOnEveryPoll() {
+        WebDriver driver = stub(WebDriver.class);
+        List<WebElement> found = new ArrayList<>();
+
+        ElementLocator locator = new ElementLocator() {
+            @Override
+            public WebElement findElement() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<WebElement> findElements() {
+                // the list grows with every find, like items rendered by an AJAX update
+                found.add(stub(WebElement.class));
+                return new ArrayList<>(found);
+            }
+        };
+        List<WebElement> items = (List<WebElement>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {List.class},
+                    new ElementsLocatorInterceptor(locator, WebElement.class, driver));
+
+        assertEquals(1, items.size());
+        assertEquals(1, items.size());
+
+        new PollingWebDriverWait(driver, 2000, new FixedPollingStrategy(10)).until(d -> items.size() == 3);
+
+        assertEquals(3, found.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[] {type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName();
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}